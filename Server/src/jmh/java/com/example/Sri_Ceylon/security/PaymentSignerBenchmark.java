@@ -0,0 +1,83 @@
+package com.example.Sri_Ceylon.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PayHere signatures from {@link PaymentSigner} against the way PaymentController used to
+ * compute them (the {@code legacy*} methods): the secret hashed on every call, the fields
+ * concatenated, hex built with {@code String.format} and compared with {@code equals}.
+ * Run with {@code -prof gc} to see the allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentSignerBenchmark {
+
+    private String merchantId = "1233905";
+    private String merchantSecret = "MzI5NjQ1NzE4MjM0NTY3ODkwMTIzNDU2Nzg5MDEyMzQ1Njc4";
+    private String orderId = "ORD-64b7f0c2a1e4c3b2d1f0a9e8";
+    private String amount = "15000.00";
+    private String currency = "LKR";
+
+    private PaymentSigner signer;
+    private String md5sig;
+
+    @Setup
+    public void setUp() throws Exception {
+        signer = new PaymentSigner(merchantId, merchantSecret);
+        md5sig = legacyMd5(merchantId + orderId + amount + currency + "2"
+                + legacyMd5(merchantSecret).toUpperCase()).toUpperCase();
+        if (!signer.sign(orderId, amount, currency).equals(legacyGenerateHash())
+                || !signer.verify(merchantId, orderId, amount, currency, "2", md5sig)) {
+            throw new IllegalStateException("PaymentSigner disagrees with the legacy hashing");
+        }
+    }
+
+    @Benchmark
+    public String generateHash() {
+        return signer.sign(orderId, amount, currency);
+    }
+
+    @Benchmark
+    public boolean verifyNotification() {
+        return signer.verify(merchantId, orderId, amount, currency, "2", md5sig);
+    }
+
+    @Benchmark
+    public String legacyGenerateHash() throws Exception {
+        String hashedSecret = legacyMd5(merchantSecret).toUpperCase();
+        return legacyMd5(merchantId + orderId + amount + currency + hashedSecret).toUpperCase();
+    }
+
+    @Benchmark
+    public boolean legacyVerifyNotification() throws Exception {
+        String hashedSecret = legacyMd5(merchantSecret).toUpperCase();
+        return legacyMd5(merchantId + orderId + amount + currency + "2" + hashedSecret).toUpperCase().equals(md5sig);
+    }
+
+    private static String legacyMd5(String input) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        byte[] hashBytes = md.digest(input.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hashBytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
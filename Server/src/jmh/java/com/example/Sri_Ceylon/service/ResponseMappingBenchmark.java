@@ -0,0 +1,148 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.DestinationResponse;
+import com.example.Sri_Ceylon.dto.EventResponse;
+import com.example.Sri_Ceylon.dto.UserResponse;
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.Role;
+import com.example.Sri_Ceylon.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity and document to DTO mapping, run once per element of every list response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    private static final List<String> IMAGE_URLS = List.of(
+            "/api/uploads/a.jpg", "/api/uploads/b.jpg", "/api/uploads/c.jpg");
+
+    private DestinationService destinationService;
+    private EventService eventService;
+    private UserService userService;
+
+    private Destination destination;
+    private Event event;
+    private User user;
+    private List<Document> favoriteDestinations;
+    private List<Document> favoriteEvents;
+
+    @Setup
+    public void setUp() {
+        destinationService = new DestinationService();
+        eventService = new EventService();
+        // the mappers touch none of the collaborators
+        userService = new UserService(null, null, null, null, null, null, null, null, null);
+
+        User owner = new User("owner", "owner@example.com", "secret");
+        owner.setId(new ObjectId().toHexString());
+
+        destination = new Destination();
+        destination.setId(new ObjectId().toHexString());
+        destination.setTitle("Sigiriya");
+        destination.setDescription("Fifth century rock fortress with frescoes and water gardens.");
+        destination.setImageUrls(IMAGE_URLS);
+        destination.setBestSeasonToVisit("January to April");
+        destination.setLocation("Matale District");
+        destination.setLatitude(7.957);
+        destination.setLongitude(80.760);
+        destination.setTimestamp(LocalDateTime.now());
+        destination.setCreatedBy(owner);
+
+        event = new Event();
+        event.setId(new ObjectId().toHexString());
+        event.setTitle("Kandy Esala Perahera");
+        event.setDescription("Ten nights of processions honouring the Sacred Tooth Relic.");
+        event.setImageUrls(IMAGE_URLS);
+        event.setStart(LocalDateTime.now().plusDays(30));
+        event.setEnd(LocalDateTime.now().plusDays(40));
+        event.setLocation("Kandy");
+        event.setLatitude(7.293);
+        event.setLongitude(80.641);
+        event.setTimestamp(LocalDateTime.now());
+        event.setCreatedBy(owner);
+
+        user = new User("traveller", "traveller@example.com", "secret");
+        user.setId(new ObjectId().toHexString());
+        user.getRoles().add(Role.ROLE_HOTEL_OWNER);
+        favoriteDestinations = new ArrayList<>();
+        favoriteEvents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ObjectId destinationId = new ObjectId();
+            ObjectId eventId = new ObjectId();
+            user.getFavoriteDestinationIds().add(destinationId);
+            user.getFavoriteEventIds().add(eventId);
+            favoriteDestinations.add(new Document("_id", destinationId)
+                    .append("title", "Destination " + i)
+                    .append("description", "Description " + i)
+                    .append("imageUrls", IMAGE_URLS)
+                    .append("bestSeasonToVisit", "Any")
+                    .append("location", "Location " + i)
+                    .append("latitude", 7.0 + i / 10.0)
+                    .append("longitude", 80.0 + i / 10.0)
+                    .append("timestamp", new Date()));
+            favoriteEvents.add(new Document("_id", eventId)
+                    .append("title", "Event " + i)
+                    .append("description", "Description " + i)
+                    .append("imageUrls", IMAGE_URLS)
+                    .append("start", new Date())
+                    .append("end", new Date())
+                    .append("location", "Location " + i)
+                    .append("latitude", 7.0 + i / 10.0)
+                    .append("longitude", 80.0 + i / 10.0)
+                    .append("timestamp", new Date()));
+        }
+    }
+
+    @Benchmark
+    public DestinationResponse mapToDestinationResponse() {
+        return destinationService.mapToDestinationResponse(destination);
+    }
+
+    @Benchmark
+    public EventResponse mapToEventResponse() {
+        return eventService.mapToEventResponse(event);
+    }
+
+    @Benchmark
+    public UserResponse convertToUserResponse() {
+        return userService.convertToUserResponse(user);
+    }
+
+    // the aggregation result conversion in getUserProfile, for a user with 10 + 10 favorites
+    @Benchmark
+    public int profileFavoritesConversion() {
+        List<DestinationResponse> destinations = new ArrayList<>(favoriteDestinations.size());
+        for (Document document : favoriteDestinations) {
+            destinations.add(UserService.toFavoriteDestination(document));
+        }
+        List<EventResponse> events = new ArrayList<>(favoriteEvents.size());
+        for (Document document : favoriteEvents) {
+            events.add(UserService.toFavoriteEvent(document));
+        }
+        return destinations.size() + events.size();
+    }
+}
@@ -2,8 +2,16 @@ package com.example.Sri_Ceylon;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoReactiveAutoConfiguration;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.mongodb.autoconfigure.MongoReactiveAutoConfiguration;
 
-@SpringBootApplication
+// the reactive Mongo stack is opt-in and wired by ReactiveMongoConfig
+@SpringBootApplication(exclude = {
+		MongoReactiveAutoConfiguration.class,
+		DataMongoReactiveAutoConfiguration.class,
+		DataMongoReactiveRepositoriesAutoConfiguration.class
+})
 public class SriCeylonApplication {
 
 	public static void main(String[] args) {
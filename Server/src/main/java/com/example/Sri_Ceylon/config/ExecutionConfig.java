@@ -0,0 +1,36 @@
+package com.example.Sri_Ceylon.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Request and {@code @Async} execution mode. With {@code spring.threads.virtual.enabled=true}
+ * Tomcat requests and the {@code applicationTaskExecutor} run on virtual threads; this
+ * needs a Java 21+ runtime, older JVMs keep the platform thread pools.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class ExecutionConfig {
+
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportExecutionMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request and async execution mode: virtual threads");
+        } else if (requested) {
+            log.warn("{}=true but Java {} has no virtual threads; running on platform threads",
+                    VIRTUAL_THREADS_PROPERTY, Runtime.version().feature());
+        } else {
+            log.info("Request and async execution mode: platform threads");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.Sri_Ceylon.config;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Derives the indexed search fields of a hotel, {@code ownerId} and {@code amenityKeys},
+ * on every save and bulk insert, so no write path can leave them stale. Hotels written
+ * before the fields existed are filled in by {@code HotelSearchFieldsBackfill}.
+ */
+@Component
+public class HotelSearchFieldsCallback implements BeforeConvertCallback<Hotel> {
+
+    @Override
+    public Hotel onBeforeConvert(Hotel hotel, String collection) {
+        hotel.setOwnerId(hotel.getCreatedBy() != null ? hotel.getCreatedBy().getId() : null);
+        List<String> amenities = hotel.getAmenities();
+        hotel.setAmenityKeys(amenities == null ? null : amenities.stream()
+                .filter(amenity -> amenity != null && !amenity.isBlank())
+                .map(Hotel::amenityKey)
+                .distinct()
+                .toList());
+        return hotel;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Sri_Ceylon.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram. Percentiles are reported as the upper bound of the
+ * bucket they fall in, which is precise enough to spot a slow command.
+ */
+final class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && millis >= BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    Map<String, Object> summary() {
+        long total = count.sum();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("totalMs", totalNanos.sum() / 1_000_000);
+        summary.put("meanMs", total == 0 ? 0.0 : totalNanos.sum() / (double) total / 1_000_000);
+        summary.put("p50Ms", percentileMs(total, 0.50));
+        summary.put("p95Ms", percentileMs(total, 0.95));
+        summary.put("p99Ms", percentileMs(total, 0.99));
+        summary.put("maxMs", maxNanos.get() / 1_000_000.0);
+        return summary;
+    }
+
+    private double percentileMs(long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BUCKET_BOUNDS_MS[i];
+            }
+        }
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
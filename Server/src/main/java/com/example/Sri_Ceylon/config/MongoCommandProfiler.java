@@ -0,0 +1,384 @@
+package com.example.Sri_Ceylon.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every Mongo command per command, collection and calling code:
+ * the repository method when there is one, otherwise the first application frame.
+ * Queries slower than {@code app.mongodb.profiler.slow-ms} are kept for the admin report
+ * with their shape (values redacted), and one per call site and interval is explained
+ * in the background so plans that scan a whole collection get flagged.
+ * <p>
+ * Off unless {@code app.mongodb.profiler.enabled} is set, since it walks the stack for
+ * every command it records; {@code sample-rate} limits it to a fraction of the commands.
+ * Queries are kept as their shape only; a full copy, needed for an explain, is taken only
+ * at call sites that have already been slow once and are due for the next explain.
+ */
+@Component
+@Slf4j
+public class MongoCommandProfiler implements CommandListener {
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+    private static final Set<String> SESSION_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction",
+            "readConcern", "writeConcern");
+    private static final String APP_PACKAGE = "com.example.Sri_Ceylon.";
+    private static final String CONFIG_PACKAGE = APP_PACKAGE + "config.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    @Value("${app.mongodb.profiler.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.mongodb.profiler.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${app.mongodb.profiler.slow-ms:100}")
+    private long slowMs;
+
+    @Value("${app.mongodb.profiler.explain-interval-ms:60000}")
+    private long explainIntervalMs;
+
+    @Value("${app.mongodb.profiler.max-slow-queries:100}")
+    private int maxSlowQueries;
+
+    // resolved lazily: this listener is part of the client it uses for explains
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final Executor executor;
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<CommandKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<CommandKey, Long> lastExplained = new ConcurrentHashMap<>();
+    private final Set<CommandKey> slowSources = ConcurrentHashMap.newKeySet();
+    private final Deque<SlowQuery> slowQueries = new ConcurrentLinkedDeque<>();
+
+    public MongoCommandProfiler(ObjectProvider<MongoClient> mongoClient,
+                                @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.mongoClient = mongoClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (!enabled || "explain".equals(commandName)
+                || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        CommandKey key = new CommandKey(commandName, collectionOf(commandName, command), caller());
+        // the command document is only valid during this callback, so whatever a slow query
+        // needs later is taken now: its shape, and a full copy only if it could be explained
+        BsonDocument shape = null;
+        BsonDocument query = null;
+        if (EXPLAINABLE.contains(commandName)) {
+            shape = shape(command);
+            query = explainDue(key) ? withoutSessionFields(command) : null;
+        }
+        inFlight.put(event.getRequestId(), new InFlight(key, event.getDatabaseName(), shape, query));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void complete(int requestId, long nanos) {
+        InFlight command = inFlight.remove(requestId);
+        if (command == null) {
+            return;
+        }
+        histograms.computeIfAbsent(command.key(), k -> new LatencyHistogram()).record(nanos);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (command.shape() == null || millis < slowMs) {
+            return;
+        }
+        slowSources.add(command.key());
+        SlowQuery slow = new SlowQuery(Instant.now(), command.key(), millis, command.shape().toJson());
+        slowQueries.addFirst(slow);
+        while (slowQueries.size() > maxSlowQueries) {
+            slowQueries.pollLast();
+        }
+        if (command.query() != null && shouldExplain(command.key())) {
+            executor.execute(() -> explain(command, slow));
+        } else {
+            log.warn("Slow Mongo {} on {} from {} took {} ms: {}", command.key().command(),
+                    command.key().collection(), command.key().source(), millis, slow.getShape());
+        }
+    }
+
+    private boolean explainDue(CommandKey key) {
+        if (!slowSources.contains(key)) {
+            return false;
+        }
+        Long previous = lastExplained.get(key);
+        return previous == null || System.currentTimeMillis() - previous >= explainIntervalMs;
+    }
+
+    private boolean shouldExplain(CommandKey key) {
+        long now = System.currentTimeMillis();
+        Long previous = lastExplained.get(key);
+        if (previous != null && now - previous < explainIntervalMs) {
+            return false;
+        }
+        return previous == null
+                ? lastExplained.putIfAbsent(key, now) == null
+                : lastExplained.replace(key, previous, now);
+    }
+
+    private void explain(InFlight command, SlowQuery slow) {
+        try {
+            Document explain = mongoClient.getObject().getDatabase(command.database())
+                    .runCommand(new Document("explain", command.query()).append("verbosity", "queryPlanner"));
+            Document winningPlan = findWinningPlan(explain);
+            slow.setPlan(winningPlan == null ? "unknown" : describe(winningPlan));
+            slow.setCollectionScan(winningPlan != null && hasStage(winningPlan, "COLLSCAN"));
+        } catch (RuntimeException e) {
+            slow.setPlan("explain failed: " + e.getMessage());
+        }
+        if (slow.isCollectionScan()) {
+            log.warn("Slow Mongo {} on {} from {} took {} ms and SCANNED THE COLLECTION: {} plan {}",
+                    slow.getCommand(), slow.getCollection(), slow.getSource(), slow.getDurationMs(),
+                    slow.getShape(), slow.getPlan());
+        } else {
+            log.warn("Slow Mongo {} on {} from {} took {} ms: {} plan {}", slow.getCommand(), slow.getCollection(),
+                    slow.getSource(), slow.getDurationMs(), slow.getShape(), slow.getPlan());
+        }
+    }
+
+    public Map<String, Object> report() {
+        List<Map<String, Object>> commands = new ArrayList<>();
+        histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<CommandKey, LatencyHistogram> e) -> e.getValue().totalNanos()).reversed())
+                .forEach(entry -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("command", entry.getKey().command());
+                    row.put("collection", entry.getKey().collection());
+                    row.put("source", entry.getKey().source());
+                    row.putAll(entry.getValue().summary());
+                    commands.add(row);
+                });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("slowThresholdMs", slowMs);
+        report.put("sampleRate", sampleRate);
+        report.put("commands", commands);
+        report.put("slowQueries", new ArrayList<>(slowQueries));
+        return report;
+    }
+
+    public void reset() {
+        histograms.clear();
+        lastExplained.clear();
+        slowSources.clear();
+        slowQueries.clear();
+    }
+
+    private static String caller() {
+        String repositoryMethod = RepositoryCallTagger.current();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().startsWith(CONFIG_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("-"));
+    }
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue target = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return target != null && target.isString() ? target.asString().getValue() : "-";
+    }
+
+    private static BsonDocument withoutSessionFields(BsonDocument command) {
+        // decoding materializes a mutable deep copy; the event's document may be a view over a pooled buffer
+        BsonDocument copy = new BsonDocumentCodec().decode(new BsonDocumentReader(command), DecoderContext.builder().build());
+        copy.keySet().removeIf(field -> field.startsWith("$") || SESSION_FIELDS.contains(field));
+        return copy;
+    }
+
+    // query values can be user data (emails, names); the report only needs the shape
+    private static BsonDocument shape(BsonDocument query) {
+        BsonDocument shape = new BsonDocument();
+        for (String field : List.of("filter", "pipeline", "query", "sort", "key")) {
+            if (query.containsKey(field)) {
+                shape.put(field, redact(query.get(field)));
+            }
+        }
+        return shape;
+    }
+
+    private static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((k, v) -> redacted.put(k, redact(v)));
+            return redacted;
+        }
+        if (value.isArray()) {
+            BsonArray redacted = new BsonArray();
+            value.asArray().forEach(v -> redacted.add(redact(v)));
+            return redacted;
+        }
+        return new BsonString("?");
+    }
+
+    // newer servers nest the plan under queryPlanner, aggregations under their first stage
+    private static Document findWinningPlan(Document document) {
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            if ("winningPlan".equals(entry.getKey()) && entry.getValue() instanceof Document plan) {
+                return plan.get("queryPlan") instanceof Document queryPlan ? queryPlan : plan;
+            }
+            Document found = null;
+            if (entry.getValue() instanceof Document child) {
+                found = findWinningPlan(child);
+            } else if (entry.getValue() instanceof List<?> list) {
+                for (Object item : list) {
+                    if (item instanceof Document child && (found = findWinningPlan(child)) != null) {
+                        break;
+                    }
+                }
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasStage(Document plan, String stage) {
+        if (stage.equals(plan.getString("stage"))) {
+            return true;
+        }
+        if (plan.get("inputStage") instanceof Document input && hasStage(input, stage)) {
+            return true;
+        }
+        if (plan.get("inputStages") instanceof List<?> inputs) {
+            for (Object input : inputs) {
+                if (input instanceof Document child && hasStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // e.g. "LIMIT > FETCH > IXSCAN(isPaid_1)"
+    private static String describe(Document plan) {
+        String stage = plan.getString("stage");
+        if (plan.getString("indexName") != null) {
+            stage += "(" + plan.getString("indexName") + ")";
+        }
+        if (plan.get("inputStage") instanceof Document input) {
+            return stage + " > " + describe(input);
+        }
+        if (plan.get("inputStages") instanceof List<?> inputs) {
+            List<String> children = new ArrayList<>();
+            for (Object input : inputs) {
+                if (input instanceof Document child) {
+                    children.add(describe(child));
+                }
+            }
+            return stage + " > [" + String.join(" | ", children) + "]";
+        }
+        return stage;
+    }
+
+    record CommandKey(String command, String collection, String source) {
+    }
+
+    private record InFlight(CommandKey key, String database, BsonDocument shape, BsonDocument query) {
+    }
+
+    public static class SlowQuery {
+        private final Instant at;
+        private final CommandKey key;
+        private final long durationMs;
+        private final String shape;
+        private volatile String plan;
+        private volatile boolean collectionScan;
+
+        SlowQuery(Instant at, CommandKey key, long durationMs, String shape) {
+            this.at = at;
+            this.key = key;
+            this.durationMs = durationMs;
+            this.shape = shape;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+
+        public String getCommand() {
+            return key.command();
+        }
+
+        public String getCollection() {
+            return key.collection();
+        }
+
+        public String getSource() {
+            return key.source();
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        void setPlan(String plan) {
+            this.plan = plan;
+        }
+
+        public boolean isCollectionScan() {
+            return collectionScan;
+        }
+
+        void setCollectionScan(boolean collectionScan) {
+            this.collectionScan = collectionScan;
+        }
+    }
+}
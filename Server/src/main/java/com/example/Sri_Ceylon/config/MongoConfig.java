@@ -2,38 +2,176 @@ package com.example.Sri_Ceylon.config;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo client and templates. Pool sizing, timeouts and wire compression come from
+ * {@code app.mongodb.*} and are applied on top of the connection string. Writes, auth
+ * and every read answered with a validator use {@code mongoTemplate} on the primary:
+ * ETags are built from the primary's version counters, and a body read from a lagging
+ * secondary would be cached under a newer ETag. Reads without a validator (bulk exports
+ * and the background loads of list snapshots and map layers) use
+ * {@link #CATALOG_READ_TEMPLATE}, which may be served by secondaries.
+ */
 @Configuration
+@EnableMongoRepositories(basePackages = "com.example.Sri_Ceylon.repository")
 public class MongoConfig extends AbstractMongoClientConfiguration {
-    
+
+    public static final String CATALOG_READ_TEMPLATE = "catalogReadTemplate";
+
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
-    
+
+    @Value("${app.mongodb.pool.min-size:5}")
+    private int poolMinSize;
+
+    @Value("${app.mongodb.pool.max-size:100}")
+    private int poolMaxSize;
+
+    @Value("${app.mongodb.pool.max-connecting:2}")
+    private int poolMaxConnecting;
+
+    // how long a request waits for a free connection before failing fast
+    @Value("${app.mongodb.pool.max-wait-ms:2000}")
+    private long poolMaxWaitMs;
+
+    @Value("${app.mongodb.pool.max-idle-ms:300000}")
+    private long poolMaxIdleMs;
+
+    @Value("${app.mongodb.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    // 0 keeps the driver default of no socket read timeout
+    @Value("${app.mongodb.read-timeout-ms:0}")
+    private int readTimeoutMs;
+
+    @Value("${app.mongodb.server-selection-timeout-ms:5000}")
+    private long serverSelectionTimeoutMs;
+
+    // offered in order, the server picks the first one it supports
+    @Value("${app.mongodb.compressors:zstd,snappy,zlib}")
+    private List<String> compressors;
+
+    @Value("${app.mongodb.catalog-read-preference:secondaryPreferred}")
+    private String catalogReadPreference;
+
+    // 90 seconds is the smallest value the server accepts
+    @Value("${app.mongodb.catalog-max-staleness-seconds:90}")
+    private long catalogMaxStalenessSeconds;
+
+    @Autowired
+    private MongoPoolMetrics mongoPoolMetrics;
+
+    @Autowired
+    private MongoCommandProfiler mongoCommandProfiler;
+
+    // Boot's Micrometer listeners; its settings customizers are not applied to a client built here
+    @Autowired
+    private ObjectProvider<MongoMetricsCommandListener> commandMetrics;
+
+    @Autowired
+    private ObjectProvider<MongoMetricsConnectionPoolListener> poolMetrics;
+
+    @Autowired
+    private ObjectProvider<ObservationRegistry> observationRegistry;
+
     @Override
     protected String getDatabaseName() {
         ConnectionString connectionString = new ConnectionString(mongoUri);
         return connectionString.getDatabase();
     }
-    
+
     @Override
     @Bean
     public MongoClient mongoClient() {
         ConnectionString connectionString = new ConnectionString(mongoUri);
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
                 .applyConnectionString(connectionString)
-                .build();
-        return MongoClients.create(mongoClientSettings);
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(poolMinSize)
+                        .maxSize(poolMaxSize)
+                        .maxConnecting(poolMaxConnecting)
+                        .maxWaitTime(poolMaxWaitMs, TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(poolMaxIdleMs, TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(mongoPoolMetrics))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMs, TimeUnit.MILLISECONDS))
+                .compressorList(compressors.stream().map(MongoConfig::compressor).toList())
+                .addCommandListener(mongoCommandProfiler);
+        commandMetrics.ifAvailable(builder::addCommandListener);
+        poolMetrics.ifAvailable(listener -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener)));
+        observationRegistry.ifAvailable(registry -> applyObservation(builder, registry, connectionString));
+        return MongoClients.create(builder.build());
+    }
+
+    /**
+     * One span per Mongo command, parented to the span of the calling request. Also used
+     * by {@link ReactiveMongoConfig}.
+     */
+    static void applyObservation(MongoClientSettings.Builder builder, ObservationRegistry registry,
+                                 ConnectionString connectionString) {
+        builder.contextProvider(ContextProviderFactory.create(registry))
+                .addCommandListener(new MongoObservationCommandListener(registry, connectionString));
     }
-    
+
     @Bean
     public MongoTemplate mongoTemplate() {
         return new MongoTemplate(mongoClient(), getDatabaseName());
     }
+
+    /**
+     * Template for reads that are not answered with a validator. Not injected by type; ask
+     * for it with {@code @Qualifier(MongoConfig.CATALOG_READ_TEMPLATE)}. Loads that are
+     * stored under a version go through {@code CatalogVersionService.readAtCurrentVersion}.
+     */
+    @Bean(name = CATALOG_READ_TEMPLATE, defaultCandidate = false)
+    public MongoTemplate catalogReadTemplate() {
+        MongoTemplate template = new MongoTemplate(mongoClient(), getDatabaseName());
+        template.setReadPreference(catalogReadPreference(catalogReadPreference, catalogMaxStalenessSeconds));
+        return template;
+    }
+
+    /**
+     * The read preference named by {@code app.mongodb.catalog-read-preference}, bounded by
+     * the configured staleness. Also used by {@link ReactiveMongoConfig}.
+     */
+    static ReadPreference catalogReadPreference(String name, long maxStalenessSeconds) {
+        ReadPreference preference = ReadPreference.valueOf(name);
+        if (preference.equals(ReadPreference.primary())) {
+            return preference;
+        }
+        return ReadPreference.valueOf(name, List.<TagSet>of(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+
+    private static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unsupported Mongo compressor: " + name);
+        };
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.Sri_Ceylon.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool counters for sizing the Mongo pool: connections open and checked out,
+ * callers waiting for a connection and how long they waited. Totals are summed over all
+ * servers since startup.
+ */
+@Component
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final AtomicInteger maxSize = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger checkedOut = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder checkoutFailures = new LongAdder();
+    private final LongAdder checkoutTimeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        maxSize.set(event.getSettings().getMaxSize());
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        checkedOut.incrementAndGet();
+        checkouts.increment();
+        recordWait(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        checkoutFailures.increment();
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            checkoutTimeouts.increment();
+        }
+        recordWait(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = checkouts.sum() + checkoutFailures.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maxSize", maxSize.get());
+        result.put("open", open.get());
+        result.put("checkedOut", checkedOut.get());
+        result.put("waiting", waiting.get());
+        result.put("checkouts", checkouts.sum());
+        result.put("checkoutFailures", checkoutFailures.sum());
+        result.put("checkoutTimeouts", checkoutTimeouts.sum());
+        result.put("avgWaitMs", count == 0 ? 0.0 : totalWaitNanos.sum() / (double) count / 1_000_000);
+        result.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Sri_Ceylon.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.micrometer.metrics.autoconfigure.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Micrometer metrics and tracing. Meters are exported at {@code /actuator/prometheus};
+ * spans go to the OTLP endpoint when one is configured. Histogram, exposure and sampling
+ * defaults live in {@code observability.properties}. Application meters and spans are
+ * named {@code app.*}, HTTP endpoints are {@code http.server.requests} and Mongo commands
+ * and pool gauges are {@code mongodb.driver.*}.
+ */
+@Configuration
+@PropertySource("classpath:observability.properties")
+public class ObservabilityConfig {
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags(
+            @Value("${spring.application.name:sri-ceylon}") String application) {
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    // the Mongo command observation is there for its spans; mongodb.driver.commands already times every command
+    @Bean
+    public MeterFilter mongoObservationMeterFilter() {
+        return MeterFilter.denyNameStartsWith("spring.data.mongodb.command");
+    }
+
+    /**
+     * Applied by Boot to {@code applicationTaskExecutor} and {@code @Async}: work handed to
+     * the executor (snapshot rebuilds, index builds, slow-query explains) keeps the trace
+     * and MDC of the request that scheduled it, on platform and virtual threads alike.
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
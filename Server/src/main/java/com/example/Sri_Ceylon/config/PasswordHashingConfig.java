@@ -0,0 +1,69 @@
+package com.example.Sri_Ceylon.config;
+
+import com.example.Sri_Ceylon.security.OffloadedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Password hashing. New hashes are written as {@code {id}hash} with the algorithm named by
+ * {@code app.password.encoder} (bcrypt, argon2 or pbkdf2); every supported algorithm can
+ * still be verified, and unprefixed hashes from before are read as bcrypt. A successful
+ * login whose stored hash uses another algorithm or a lower bcrypt cost is re-hashed and
+ * saved (see {@code UserDetailsServiceImpl#updatePassword}), so the cost can be raised or
+ * the algorithm switched against the {@code app.password.hash} timings without a migration.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${app.password.encoder:bcrypt}")
+    private String encoderId;
+
+    @Value("${app.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.password.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.password.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${app.password.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // 0 = half the cores, leaving the rest for everything that is not a login
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new OffloadedPasswordEncoder(delegatingPasswordEncoder(encoderId, bcryptStrength),
+                threads, queueCapacity, maxWaitMs, retryAfterSeconds, meterRegistry);
+    }
+
+    public static PasswordEncoder delegatingPasswordEncoder(String encoderId, int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(encoderId)) {
+            throw new IllegalStateException("Unknown app.password.encoder '" + encoderId
+                    + "', expected one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Sri_Ceylon.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive Mongo access for the read-only API under {@code /api/reactive}. Off unless
+ * {@code app.reactive.enabled=true}; it shares the connection string and mapping
+ * metadata with {@link MongoConfig} but keeps its own non-blocking client. Its responses
+ * carry no validators, so reads use the catalog read preference and may be served by
+ * secondaries.
+ */
+@Configuration
+@ConditionalOnBooleanProperty("app.reactive.enabled")
+@EnableReactiveMongoRepositories(basePackages = "com.example.Sri_Ceylon.repository.reactive")
+public class ReactiveMongoConfig {
+
+    @Value("${spring.data.mongodb.uri}")
+    private String mongoUri;
+
+    @Value("${app.mongodb.catalog-read-preference:secondaryPreferred}")
+    private String catalogReadPreference;
+
+    @Value("${app.mongodb.catalog-max-staleness-seconds:90}")
+    private long catalogMaxStalenessSeconds;
+
+    @Bean
+    public MongoClient reactiveMongoClient(ObjectProvider<ObservationRegistry> observationRegistry) {
+        ConnectionString connectionString = new ConnectionString(mongoUri);
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(connectionString);
+        observationRegistry.ifAvailable(registry -> MongoConfig.applyObservation(builder, registry, connectionString));
+        return MongoClients.create(builder.build());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient,
+                                                       MongoMappingContext mappingContext,
+                                                       MongoCustomConversions customConversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(ShallowDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(customConversions);
+        converter.afterPropertiesSet();
+        String database = new ConnectionString(mongoUri).getDatabase();
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, database), converter);
+        template.setReadPreference(MongoConfig.catalogReadPreference(catalogReadPreference, catalogMaxStalenessSeconds));
+        return template;
+    }
+}
@@ -3,21 +3,27 @@ package com.example.Sri_Ceylon.config;
 import com.example.Sri_Ceylon.security.UserDetailsServiceImpl;
 import com.example.Sri_Ceylon.security.jwt.AuthEntryPointJwt;
 import com.example.Sri_Ceylon.security.jwt.AuthTokenFilter;
+import com.example.Sri_Ceylon.security.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.micrometer.metrics.autoconfigure.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.SingleResultAuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -35,14 +41,15 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final AuthTokenFilter authTokenFilter;
+    private final RateLimitFilter rateLimitFilter;
     
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
-    
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+
+    // off by default: metrics name internal routes and collections; only turn it on where the
+    // actuator is not reachable from the internet, e.g. on its own management.server.port
+    @Value("${app.metrics.prometheus-public:false}")
+    private boolean prometheusPublic;
     
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
@@ -57,32 +64,47 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
-                .requestMatchers("/api/payments/**").permitAll()
+                // PayHere's server calls it; authenticated by md5sig
+                .requestMatchers("/api/payments/notify").permitAll()
                 .requestMatchers("/api/events", "/api/events/**").permitAll()
                 .requestMatchers("/api/destinations", "/api/destinations/**").permitAll()
                 .requestMatchers("/api/hotels", "/api/hotels/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/map/**").permitAll()
                 .requestMatchers("/api/chat", "/api/chat/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/reactive/**").permitAll()
                 .requestMatchers("/api/events/reviews/event/**", "/api/events/reviews/{reviewId}").permitAll()
                 .requestMatchers("/api/destinations/reviews/destination/**", "/api/destinations/reviews/{reviewId}").permitAll()
                 .requestMatchers("/api/uploads/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).access(prometheusAccess())
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .userDetailsService(userDetailsService);
         
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // after authentication so signed-in users are limited per account, not per IP
+        http.addFilterAfter(rateLimitFilter, AuthTokenFilter.class);
         
         return http.build();
     }
     
+    private AuthorizationManager<RequestAuthorizationContext> prometheusAccess() {
+        if (prometheusPublic) {
+            return SingleResultAuthorizationManager.permitAll();
+        }
+        return AuthorityAuthorizationManager.hasRole("ADMIN");
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "If-None-Match", "If-Modified-Since"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Last-Modified"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
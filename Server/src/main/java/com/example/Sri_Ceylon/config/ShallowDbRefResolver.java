@@ -0,0 +1,50 @@
+package com.example.Sri_Ceylon.config;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.convert.ReferenceLookupDelegate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads {@code @DBRef} properties as stubs that carry only the referenced id, without
+ * touching the database. The reactive template cannot resolve references on its own and
+ * a blocking lookup has no place on an event loop; callers batch-load what they need.
+ */
+enum ShallowDbRefResolver implements DbRefResolver {
+
+    INSTANCE;
+
+    @Override
+    public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref,
+                               DbRefResolverCallback callback, DbRefProxyHandler proxyHandler) {
+        return callback.resolve(property);
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        return new Document("_id", dbRef.getId());
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> dbRefs) {
+        return dbRefs.stream().map(this::fetch).collect(Collectors.toList());
+    }
+
+    /**
+     * {@code @DocumentReference} properties are left unresolved (null) rather than failing
+     * the read. No model uses them today; like the {@code @DBRef} stubs, anything a caller
+     * needs from the referenced document is batch-loaded separately.
+     */
+    @Override
+    public Object resolveReference(MongoPersistentProperty property, Object source,
+                                   ReferenceLookupDelegate referenceLookupDelegate,
+                                   MongoEntityReader entityReader) {
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.Sri_Ceylon.config;
+
+import com.example.Sri_Ceylon.model.Versioned;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the revision of versioned documents on every save, including bulk inserts.
+ * Deliberately not {@code @Version}: documents written before the field existed have
+ * no revision, and optimistic locking would turn saving them into a duplicate insert.
+ */
+@Component
+public class VersionedEntityCallback implements BeforeConvertCallback<Versioned> {
+
+    @Override
+    public Versioned onBeforeConvert(Versioned entity, String collection) {
+        Long version = entity.getVersion();
+        entity.setVersion(version == null ? 1L : version + 1);
+        return entity;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.Sri_Ceylon.controller;
 
+import com.example.Sri_Ceylon.dto.AvailabilityRequest;
+import com.example.Sri_Ceylon.dto.AvailabilityResponse;
 import com.example.Sri_Ceylon.dto.JwtResponse;
 import com.example.Sri_Ceylon.dto.LoginRequest;
 import com.example.Sri_Ceylon.dto.MessageResponse;
+import com.example.Sri_Ceylon.dto.RefreshTokenRequest;
 import com.example.Sri_Ceylon.dto.SignupRequest;
 import com.example.Sri_Ceylon.service.AuthService;
+import com.example.Sri_Ceylon.service.UserAvailabilityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     
     private final AuthService authService;
+    private final UserAvailabilityService userAvailabilityService;
     
     @PostMapping("/login")
     public ResponseEntity<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
@@ -24,6 +29,25 @@ public class AuthController {
         return ResponseEntity.ok(jwtResponse);
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        JwtResponse jwtResponse = authService.refreshToken(refreshTokenRequest);
+        return ResponseEntity.ok(jwtResponse);
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        MessageResponse messageResponse = authService.logout(refreshTokenRequest);
+        return ResponseEntity.ok(messageResponse);
+    }
+    
+    // live validation for the signup form: several candidates in one request
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@Valid @RequestBody AvailabilityRequest availabilityRequest) {
+        AvailabilityResponse availabilityResponse = userAvailabilityService.check(availabilityRequest);
+        return ResponseEntity.ok(availabilityResponse);
+    }
+    
     @PostMapping("/signup")
     public ResponseEntity<MessageResponse> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
         MessageResponse messageResponse = authService.registerUser(signupRequest);
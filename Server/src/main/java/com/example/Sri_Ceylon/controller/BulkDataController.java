@@ -0,0 +1,71 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.dto.BulkImportResponse;
+import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.BulkDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/bulk")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class BulkDataController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BulkDataService bulkDataService;
+
+    @PostMapping("/destinations/import")
+    public ResponseEntity<BulkImportResponse> importDestinations(
+            InputStream body,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) throws IOException {
+        return ResponseEntity.ok(bulkDataService.importDestinations(body, userDetails.getUsername()));
+    }
+
+    @PostMapping("/events/import")
+    public ResponseEntity<BulkImportResponse> importEvents(
+            InputStream body,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) throws IOException {
+        return ResponseEntity.ok(bulkDataService.importEvents(body, userDetails.getUsername()));
+    }
+
+    @PostMapping("/hotels/import")
+    public ResponseEntity<BulkImportResponse> importHotels(
+            InputStream body,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) throws IOException {
+        return ResponseEntity.ok(bulkDataService.importHotels(body, userDetails.getUsername()));
+    }
+
+    @GetMapping("/destinations/export")
+    public ResponseEntity<StreamingResponseBody> exportDestinations() {
+        return ndjson("destinations.ndjson", bulkDataService::exportDestinations);
+    }
+
+    @GetMapping("/events/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        return ndjson("events.ndjson", bulkDataService::exportEvents);
+    }
+
+    @GetMapping("/hotels/export")
+    public ResponseEntity<StreamingResponseBody> exportHotels() {
+        return ndjson("hotels.ndjson", bulkDataService::exportHotels);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.CatalogVersionService.DocumentVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+/**
+ * Conditional GET handling for catalog endpoints. Validators are checked before the
+ * documents are loaded; when they match, the controller returns null and Spring answers
+ * with 304 Not Modified. Otherwise the ETag and Last-Modified headers are already set.
+ */
+@Component
+public class CatalogETags {
+
+    private final CatalogVersionService catalogVersionService;
+    private final Counter listHits;
+    private final Counter listMisses;
+    private final Counter documentHits;
+    private final Counter documentMisses;
+
+    public CatalogETags(CatalogVersionService catalogVersionService, MeterRegistry meterRegistry) {
+        this.catalogVersionService = catalogVersionService;
+        this.listHits = conditionalCounter(meterRegistry, "list", "hit");
+        this.listMisses = conditionalCounter(meterRegistry, "list", "miss");
+        this.documentHits = conditionalCounter(meterRegistry, "document", "hit");
+        this.documentMisses = conditionalCounter(meterRegistry, "document", "miss");
+    }
+
+    private static Counter conditionalCounter(MeterRegistry meterRegistry, String scope, String result) {
+        return Counter.builder("app.catalog.conditional")
+                .description("Conditional GETs answered with 304 (hit) or a full body (miss)")
+                .tags("scope", scope, "result", result)
+                .register(meterRegistry);
+    }
+
+    public long listVersion(String collection) {
+        return catalogVersionService.currentVersion(collection);
+    }
+
+    public boolean listNotModified(WebRequest request, String collection, Object... variant) {
+        return listNotModifiedAt(request, collection, listVersion(collection), variant);
+    }
+
+    /**
+     * Checks the validators against a version the caller has already read, so that the
+     * body it then serves (e.g. a snapshot of that version) belongs to the same ETag.
+     */
+    public boolean listNotModifiedAt(WebRequest request, String collection, long version, Object... variant) {
+        boolean notModified = request.checkNotModified(catalogVersionService.collectionETag(collection, version, variant));
+        count(request, notModified, listHits, listMisses);
+        return notModified;
+    }
+
+    public boolean documentNotModified(WebRequest request, String collection, String id,
+                                       String timestampField, Object... variant) {
+        Optional<DocumentVersion> version = catalogVersionService.documentVersion(collection, id, timestampField);
+        boolean notModified = version.isPresent()
+                && request.checkNotModified(version.get().etag(variant), version.get().lastModified());
+        count(request, notModified, documentHits, documentMisses);
+        return notModified;
+    }
+
+    // only requests that carried a validator can hit
+    private static void count(WebRequest request, boolean notModified, Counter hits, Counter misses) {
+        if (notModified) {
+            hits.increment();
+        } else if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            misses.increment();
+        }
+    }
+}
@@ -5,6 +5,9 @@ import com.example.Sri_Ceylon.dto.DestinationResponse;
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateDestinationRequest;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.FieldSelection;
+import com.example.Sri_Ceylon.service.ListSnapshotService;
 import com.example.Sri_Ceylon.service.DestinationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/destinations")
@@ -23,17 +27,40 @@ public class DestinationController {
     @Autowired
     private DestinationService destinationService;
 
+    @Autowired
+    private CatalogETags catalogETags;
+
+    @Autowired
+    private ListSnapshotService listSnapshotService;
+
     // Public endpoints
     @GetMapping
-    public ResponseEntity<List<DestinationResponse>> getAllDestinations() {
-        List<DestinationResponse> destinations = destinationService.getAllDestinations();
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<?> getAllDestinations(@RequestParam(required = false) String fields, WebRequest request) {
+        // one read of the counter for both the ETag and the snapshot
+        long version = catalogETags.listVersion(CatalogVersionService.DESTINATIONS);
+        if (catalogETags.listNotModifiedAt(request, CatalogVersionService.DESTINATIONS, version, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, DestinationService.RESPONSE_FIELDS);
+        if (selection.isAll()) {
+            Optional<ListSnapshotService.Snapshot> snapshot = listSnapshotService.get(CatalogVersionService.DESTINATIONS, version);
+            if (snapshot.isPresent()) {
+                return SnapshotResponses.of(snapshot.get(), request);
+            }
+        }
+        return ResponseEntity.ok(destinationService.getAllDestinations(selection));
     }
 
     @GetMapping("/{destinationId}")
-    public ResponseEntity<DestinationResponse> getDestinationById(@PathVariable String destinationId) {
-        DestinationResponse destination = destinationService.getDestinationById(destinationId);
-        return ResponseEntity.ok(destination);
+    public ResponseEntity<?> getDestinationById(
+            @PathVariable String destinationId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.documentNotModified(request, CatalogVersionService.DESTINATIONS, destinationId, "timestamp", fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, DestinationService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(destinationService.getDestinationById(destinationId, selection));
     }
 
     // Admin only endpoints
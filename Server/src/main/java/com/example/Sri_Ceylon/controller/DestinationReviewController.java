@@ -5,6 +5,8 @@ import com.example.Sri_Ceylon.dto.DestinationReviewResponse;
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateDestinationReviewRequest;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.FieldSelection;
 import com.example.Sri_Ceylon.service.DestinationReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/destinations/reviews")
@@ -23,17 +24,32 @@ public class DestinationReviewController {
     @Autowired
     private DestinationReviewService destinationReviewService;
 
+    @Autowired
+    private CatalogETags catalogETags;
+
     // Public endpoints
     @GetMapping("/destination/{destinationId}")
-    public ResponseEntity<List<DestinationReviewResponse>> getReviewsByDestinationId(@PathVariable String destinationId) {
-        List<DestinationReviewResponse> reviews = destinationReviewService.getReviewsByDestinationId(destinationId);
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<?> getReviewsByDestinationId(
+            @PathVariable String destinationId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.listNotModified(request, CatalogVersionService.DESTINATION_REVIEWS, destinationId, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, DestinationReviewService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(destinationReviewService.getReviewsByDestinationId(destinationId, selection));
     }
 
     @GetMapping("/{reviewId}")
-    public ResponseEntity<DestinationReviewResponse> getReviewById(@PathVariable String reviewId) {
-        DestinationReviewResponse review = destinationReviewService.getReviewById(reviewId);
-        return ResponseEntity.ok(review);
+    public ResponseEntity<?> getReviewById(
+            @PathVariable String reviewId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.documentNotModified(request, CatalogVersionService.DESTINATION_REVIEWS, reviewId, "timestamp", fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, DestinationReviewService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(destinationReviewService.getReviewById(reviewId, selection));
     }
 
     // Authenticated user endpoints
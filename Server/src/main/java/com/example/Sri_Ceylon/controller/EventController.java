@@ -5,6 +5,9 @@ import com.example.Sri_Ceylon.dto.EventResponse;
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateEventRequest;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.FieldSelection;
+import com.example.Sri_Ceylon.service.ListSnapshotService;
 import com.example.Sri_Ceylon.service.EventService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/events")
@@ -23,17 +27,40 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private CatalogETags catalogETags;
+
+    @Autowired
+    private ListSnapshotService listSnapshotService;
+
     // Public endpoints
     @GetMapping
-    public ResponseEntity<List<EventResponse>> getAllEvents() {
-        List<EventResponse> events = eventService.getAllEvents();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> getAllEvents(@RequestParam(required = false) String fields, WebRequest request) {
+        // one read of the counter for both the ETag and the snapshot
+        long version = catalogETags.listVersion(CatalogVersionService.EVENTS);
+        if (catalogETags.listNotModifiedAt(request, CatalogVersionService.EVENTS, version, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, EventService.RESPONSE_FIELDS);
+        if (selection.isAll()) {
+            Optional<ListSnapshotService.Snapshot> snapshot = listSnapshotService.get(CatalogVersionService.EVENTS, version);
+            if (snapshot.isPresent()) {
+                return SnapshotResponses.of(snapshot.get(), request);
+            }
+        }
+        return ResponseEntity.ok(eventService.getAllEvents(selection));
     }
 
     @GetMapping("/{eventId}")
-    public ResponseEntity<EventResponse> getEventById(@PathVariable String eventId) {
-        EventResponse event = eventService.getEventById(eventId);
-        return ResponseEntity.ok(event);
+    public ResponseEntity<?> getEventById(
+            @PathVariable String eventId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.documentNotModified(request, CatalogVersionService.EVENTS, eventId, "timestamp", fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, EventService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(eventService.getEventById(eventId, selection));
     }
 
     // Admin only endpoints
@@ -5,6 +5,8 @@ import com.example.Sri_Ceylon.dto.EventReviewResponse;
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateEventReviewRequest;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.FieldSelection;
 import com.example.Sri_Ceylon.service.EventReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/events/reviews")
@@ -23,17 +24,32 @@ public class EventReviewController {
     @Autowired
     private EventReviewService eventReviewService;
 
+    @Autowired
+    private CatalogETags catalogETags;
+
     // Public endpoints
     @GetMapping("/event/{eventId}")
-    public ResponseEntity<List<EventReviewResponse>> getReviewsByEventId(@PathVariable String eventId) {
-        List<EventReviewResponse> reviews = eventReviewService.getReviewsByEventId(eventId);
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<?> getReviewsByEventId(
+            @PathVariable String eventId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.listNotModified(request, CatalogVersionService.EVENT_REVIEWS, eventId, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, EventReviewService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(eventReviewService.getReviewsByEventId(eventId, selection));
     }
 
     @GetMapping("/{reviewId}")
-    public ResponseEntity<EventReviewResponse> getReviewById(@PathVariable String reviewId) {
-        EventReviewResponse review = eventReviewService.getReviewById(reviewId);
-        return ResponseEntity.ok(review);
+    public ResponseEntity<?> getReviewById(
+            @PathVariable String reviewId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.documentNotModified(request, CatalogVersionService.EVENT_REVIEWS, reviewId, "timestamp", fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, EventReviewService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(eventReviewService.getReviewById(reviewId, selection));
     }
 
     // Authenticated user endpoints
@@ -5,15 +5,22 @@ import com.example.Sri_Ceylon.dto.HotelResponse;
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateHotelRequest;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import com.example.Sri_Ceylon.service.FieldSelection;
+import com.example.Sri_Ceylon.service.ListSnapshotService;
 import com.example.Sri_Ceylon.service.HotelService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/hotels")
@@ -23,23 +30,77 @@ public class HotelController {
     @Autowired
     private HotelService hotelService;
 
+    @Autowired
+    private CatalogETags catalogETags;
+
+    @Autowired
+    private ListSnapshotService listSnapshotService;
+
     // Public endpoints
     @GetMapping
-    public ResponseEntity<List<HotelResponse>> getAllHotels() {
-        return ResponseEntity.ok(hotelService.getAllHotels());
+    public ResponseEntity<?> getAllHotels(@RequestParam(required = false) String fields, WebRequest request) {
+        // one read of the counter for both the ETag and the snapshot
+        long version = catalogETags.listVersion(CatalogVersionService.HOTELS);
+        if (catalogETags.listNotModifiedAt(request, CatalogVersionService.HOTELS, version, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, HotelService.RESPONSE_FIELDS);
+        if (selection.isAll()) {
+            Optional<ListSnapshotService.Snapshot> snapshot = listSnapshotService.get(CatalogVersionService.HOTELS, version);
+            if (snapshot.isPresent()) {
+                return SnapshotResponses.of(snapshot.get(), request);
+            }
+        }
+        return ResponseEntity.ok(hotelService.getAllHotels(selection));
     }
 
     @GetMapping("/{hotelId}")
-    public ResponseEntity<HotelResponse> getHotelById(@PathVariable String hotelId) {
-        return ResponseEntity.ok(hotelService.getHotelById(hotelId));
+    public ResponseEntity<?> getHotelById(
+            @PathVariable String hotelId,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.documentNotModified(request, CatalogVersionService.HOTELS, hotelId, "createdAt", fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, HotelService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(hotelService.getHotelById(hotelId, selection));
     }
 
     @GetMapping("/near")
-    public ResponseEntity<List<HotelResponse>> getNearbyHotels(
+    public ResponseEntity<?> getNearbyHotels(
             @RequestParam Double lat,
             @RequestParam Double lng,
-            @RequestParam(defaultValue = "10") Double radiusKm) {
-        return ResponseEntity.ok(hotelService.getNearbyHotels(lat, lng, radiusKm));
+            @RequestParam(defaultValue = "10") Double radiusKm,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (catalogETags.listNotModified(request, CatalogVersionService.HOTELS, "near", lat, lng, radiusKm, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, HotelService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(hotelService.getNearbyHotels(lat, lng, radiusKm, selection));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchHotels(
+            @RequestParam(required = false) List<String> amenities,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "10") Double radiusKm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (!"all".equals(match) && !"any".equals(match)) {
+            throw new RuntimeException("match must be all or any");
+        }
+        boolean matchAll = "all".equals(match);
+        if (catalogETags.listNotModified(request, CatalogVersionService.HOTELS, "search", amenities, match,
+                lat, lng, radiusKm, page, size, fields)) {
+            return null;
+        }
+        FieldSelection selection = FieldSelection.parse(fields, HotelService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(hotelService.searchHotels(amenities, matchAll, lat, lng, radiusKm, page, size, selection));
     }
 
     // Admin endpoints
@@ -49,6 +110,14 @@ public class HotelController {
         return ResponseEntity.ok(hotelService.getAllHotelsForAdmin());
     }
 
+    @GetMapping("/admin/all/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllHotelsForAdmin() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(hotelService::streamAllHotelsForAdmin);
+    }
+
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<HotelResponse> createHotel(
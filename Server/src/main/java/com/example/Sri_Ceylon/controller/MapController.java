@@ -0,0 +1,40 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.service.MapClusterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/map")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class MapController {
+
+    @Autowired
+    private MapClusterService mapClusterService;
+
+    /**
+     * Markers for the visible part of the map, clustered to the zoom level. Send the map's
+     * bounds and zoom; at high zoom most clusters hold a single point and carry its id.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<?> getClusters(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom,
+            @RequestParam(required = false) List<String> layers,
+            WebRequest request) {
+        MapClusterService.Clusters clusters = mapClusterService.clusters(
+                layers == null || layers.isEmpty() ? MapClusterService.LAYERS : layers,
+                zoom, minLat, minLng, maxLat, maxLng);
+        if (request.checkNotModified(clusters.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(clusters.response());
+    }
+}
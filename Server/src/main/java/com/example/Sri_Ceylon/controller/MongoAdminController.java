@@ -0,0 +1,56 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.config.MongoCommandProfiler;
+import com.example.Sri_Ceylon.config.MongoPoolMetrics;
+import com.example.Sri_Ceylon.dto.IndexStatusResponse;
+import com.example.Sri_Ceylon.dto.MessageResponse;
+import com.example.Sri_Ceylon.service.IndexCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/mongo")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class MongoAdminController {
+
+    private final MongoPoolMetrics mongoPoolMetrics;
+    private final MongoCommandProfiler mongoCommandProfiler;
+    private final IndexCatalogService indexCatalogService;
+
+    @GetMapping("/pool")
+    public ResponseEntity<Map<String, Object>> getPoolMetrics() {
+        return ResponseEntity.ok(mongoPoolMetrics.snapshot());
+    }
+
+    @GetMapping("/profile")
+    public ResponseEntity<Map<String, Object>> getCommandProfile() {
+        return ResponseEntity.ok(mongoCommandProfiler.report());
+    }
+
+    @DeleteMapping("/profile")
+    public ResponseEntity<MessageResponse> resetCommandProfile() {
+        mongoCommandProfiler.reset();
+        return ResponseEntity.ok(new MessageResponse("Command profile reset"));
+    }
+
+    @GetMapping("/indexes")
+    public ResponseEntity<List<IndexStatusResponse>> getIndexes() {
+        return ResponseEntity.ok(indexCatalogService.verify());
+    }
+
+    @PostMapping("/indexes/build")
+    public ResponseEntity<MessageResponse> buildMissingIndexes() {
+        if (!indexCatalogService.buildMissingIndexes()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("An index build is already running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Building missing indexes"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.dto.MessageResponse;
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.model.PaymentStatus;
+import com.example.Sri_Ceylon.service.PaymentOrderService;
+import com.example.Sri_Ceylon.service.PaymentReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/payments")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class PaymentAdminController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final PaymentOrderService paymentOrderService;
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    @GetMapping("/orders")
+    public ResponseEntity<List<PaymentOrder>> getOrders(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) String hotelId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(paymentOrderService.findOrders(status, hotelId, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<MessageResponse> reconcile() {
+        paymentReconciliationService.reconcile();
+        return ResponseEntity.ok(new MessageResponse("Reconciliation finished"));
+    }
+}
@@ -1,60 +1,75 @@
 package com.example.Sri_Ceylon.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.security.PaymentSigner;
+import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.PaymentNotificationService;
+import com.example.Sri_Ceylon.service.PaymentOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/payments")
 @CrossOrigin(origins = "*", maxAge = 3600)
+@Slf4j
 public class PaymentController {
 
-    @Value("${payhere.merchant.id:1233905}")
-    private String merchantId;
+    @Autowired
+    private PaymentNotificationService paymentNotificationService;
 
-    @Value("${payhere.merchant.secret:YOUR_MERCHANT_SECRET_HERE}")
-    private String merchantSecret;
+    @Autowired
+    private PaymentOrderService paymentOrderService;
+
+    @Autowired
+    private PaymentSigner paymentSigner;
 
     /**
      * Generate PayHere payment hash
      * Hash = MD5(merchant_id + order_id + amount + currency + MD5(merchant_secret).toUpperCase()).toUpperCase()
+     * Only the hotel's owner can ask. The amount and currency are the listing fee, set
+     * here and returned with the hash; the checkout must be submitted with exactly those.
+     * The order is recorded in the payment ledger first, and notifications for it must
+     * report the same amount and currency.
      */
     @PostMapping("/generate-hash")
-    public ResponseEntity<Map<String, String>> generatePaymentHash(@RequestBody Map<String, String> request) {
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, String>> generatePaymentHash(@RequestBody Map<String, String> request,
+                                                                   @AuthenticationPrincipal UserDetailsImpl userDetails) {
         try {
-            System.out.println("Payment hash request received: " + request);
-            
             String orderId = request.get("orderId");
-            String amount = request.get("amount");
-            String currency = request.getOrDefault("currency", "LKR");
-            
-            System.out.println("Order ID: " + orderId + ", Amount: " + amount + ", Currency: " + currency);
+            String hotelId = request.get("hotelId");
+            log.debug("Payment hash requested for order {} (hotel {})", orderId, hotelId);
 
-            if (orderId == null || amount == null) {
+            if (orderId == null || hotelId == null) {
                 Map<String, String> error = new HashMap<>();
-                error.put("error", "orderId and amount are required");
+                error.put("error", "orderId and hotelId are required");
                 return ResponseEntity.badRequest().body(error);
             }
 
-            // Step 1: Hash the merchant secret
-            String hashedSecret = md5(merchantSecret).toUpperCase();
-
-            // Step 2: Create the hash string
-            String hashString = merchantId + orderId + amount + currency + hashedSecret;
-
-            // Step 3: Hash the final string
-            String hash = md5(hashString).toUpperCase();
+            boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
+            PaymentOrder order = paymentOrderService.createListingOrder(orderId, hotelId, userDetails.getId(), isAdmin);
 
             Map<String, String> response = new HashMap<>();
-            response.put("hash", hash);
-            response.put("merchantId", merchantId);
+            response.put("hash", paymentSigner.sign(orderId, order.getAmount(), order.getCurrency()));
+            response.put("merchantId", paymentSigner.getMerchantId());
+            response.put("amount", order.getAmount());
+            response.put("currency", order.getCurrency());
 
             return ResponseEntity.ok(response);
+        } catch (AccessDeniedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to generate hash: " + e.getMessage());
@@ -63,7 +78,9 @@ public class PaymentController {
     }
 
     /**
-     * Verify PayHere payment notification
+     * Verify PayHere payment notification. A verified notification is only recorded here;
+     * the hotel is activated in the background by PaymentNotificationService, so PayHere
+     * gets its answer at once and redeliveries of the same order do no further work.
      */
     @PostMapping("/notify")
     public ResponseEntity<String> handlePaymentNotification(@RequestParam Map<String, String> params) {
@@ -74,44 +91,38 @@ public class PaymentController {
             String currency = params.get("payhere_currency");
             String statusCode = params.get("status_code");
             String md5sig = params.get("md5sig");
-            String hotelId = params.get("custom_1");
-
-            // Verify signature
-            String hashedSecret = md5(merchantSecret).toUpperCase();
-            String verifyString = merchantIdReceived + orderId + amount + currency + statusCode + hashedSecret;
-            String localMd5sig = md5(verifyString).toUpperCase();
 
-            if (localMd5sig.equals(md5sig) && "2".equals(statusCode)) {
-                // Payment successful
-                // TODO: Update hotel isPaid status in database
-                System.out.println("Payment successful for hotel: " + hotelId);
-                System.out.println("Order ID: " + orderId);
-                System.out.println("Amount: " + amount + " " + currency);
-
-                // Here you would update the hotel's payment status
-                // hotelService.updatePaymentStatus(hotelId, true);
+            if (orderId == null
+                    || !paymentSigner.verify(merchantIdReceived, orderId, amount, currency, statusCode, md5sig)) {
+                log.warn("Rejected PayHere notification for order {}: signature mismatch", orderId);
+                return ResponseEntity.ok("FAILED");
+            }
 
-                return ResponseEntity.ok("SUCCESS");
-            } else {
-                System.out.println("Payment verification failed or payment not successful");
+            // the hotel comes from our own order only: custom_1 is not covered by md5sig
+            PaymentOrder order = paymentOrderService.findOrder(orderId);
+            if (order == null) {
+                log.warn("Rejected PayHere notification for order {}: not in the payment ledger", orderId);
                 return ResponseEntity.ok("FAILED");
             }
+            if (!order.matches(amount, currency)) {
+                log.warn("Rejected PayHere notification for order {}: paid {} {}, expected {} {}",
+                        orderId, amount, currency, order.getAmount(), order.getCurrency());
+                return ResponseEntity.ok("FAILED");
+            }
+            String hotelId = order.getHotelId();
+
+            String paymentId = params.get("payment_id");
+            // ledger first, so the worker finds the order PAID when it activates the hotel
+            paymentOrderService.applyNotification(orderId, statusCode, paymentId);
+            paymentNotificationService.record(orderId, paymentId, hotelId, amount, currency, statusCode);
+            if (!"2".equals(statusCode)) {
+                log.info("PayHere order {} reported status {}, hotel {} not activated", orderId, statusCode, hotelId);
+                return ResponseEntity.ok("FAILED");
+            }
+            return ResponseEntity.ok("SUCCESS");
         } catch (Exception e) {
-            System.err.println("Error processing payment notification: " + e.getMessage());
+            log.error("Error processing payment notification", e);
             return ResponseEntity.badRequest().body("ERROR");
         }
     }
-
-    /**
-     * MD5 hash utility method
-     */
-    private String md5(String input) throws Exception {
-        MessageDigest md = MessageDigest.getInstance("MD5");
-        byte[] hashBytes = md.digest(input.getBytes(StandardCharsets.UTF_8));
-        StringBuilder sb = new StringBuilder();
-        for (byte b : hashBytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
-    }
 }
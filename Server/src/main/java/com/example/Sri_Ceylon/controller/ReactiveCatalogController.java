@@ -0,0 +1,76 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.dto.DestinationResponse;
+import com.example.Sri_Ceylon.dto.DestinationReviewResponse;
+import com.example.Sri_Ceylon.dto.EventResponse;
+import com.example.Sri_Ceylon.dto.EventReviewResponse;
+import com.example.Sri_Ceylon.dto.HotelResponse;
+import com.example.Sri_Ceylon.service.ReactiveCatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only catalog endpoints backed by the reactive Mongo driver. The request thread is
+ * released while Mongo works; {@code Accept: application/x-ndjson} streams list results
+ * as they arrive instead of collecting them into one JSON array.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnBooleanProperty("app.reactive.enabled")
+public class ReactiveCatalogController {
+
+    @Autowired
+    private ReactiveCatalogService reactiveCatalogService;
+
+    @GetMapping("/destinations")
+    public Flux<DestinationResponse> getAllDestinations() {
+        return reactiveCatalogService.getAllDestinations();
+    }
+
+    @GetMapping("/destinations/{destinationId}")
+    public Mono<DestinationResponse> getDestinationById(@PathVariable String destinationId) {
+        return reactiveCatalogService.getDestinationById(destinationId);
+    }
+
+    @GetMapping("/destinations/{destinationId}/reviews")
+    public Flux<DestinationReviewResponse> getDestinationReviews(@PathVariable String destinationId) {
+        return reactiveCatalogService.getReviewsByDestinationId(destinationId);
+    }
+
+    @GetMapping("/events")
+    public Flux<EventResponse> getAllEvents() {
+        return reactiveCatalogService.getAllEvents();
+    }
+
+    @GetMapping("/events/{eventId}")
+    public Mono<EventResponse> getEventById(@PathVariable String eventId) {
+        return reactiveCatalogService.getEventById(eventId);
+    }
+
+    @GetMapping("/events/{eventId}/reviews")
+    public Flux<EventReviewResponse> getEventReviews(@PathVariable String eventId) {
+        return reactiveCatalogService.getReviewsByEventId(eventId);
+    }
+
+    @GetMapping("/hotels")
+    public Flux<HotelResponse> getAllHotels() {
+        return reactiveCatalogService.getAllHotels();
+    }
+
+    @GetMapping("/hotels/near")
+    public Flux<HotelResponse> getNearbyHotels(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") Double radiusKm) {
+        return reactiveCatalogService.getNearbyHotels(lat, lng, radiusKm);
+    }
+
+    @GetMapping("/hotels/{hotelId}")
+    public Mono<HotelResponse> getHotelById(@PathVariable String hotelId) {
+        return reactiveCatalogService.getHotelById(hotelId);
+    }
+}
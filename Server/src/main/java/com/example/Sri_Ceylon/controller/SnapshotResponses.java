@@ -0,0 +1,63 @@
+package com.example.Sri_Ceylon.controller;
+
+import com.example.Sri_Ceylon.service.ListSnapshotService.Snapshot;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Writes a pre-serialized list snapshot, picking the pre-compressed variant the client
+ * weighs highest in {@code Accept-Encoding}; brotli wins a tie with gzip.
+ */
+final class SnapshotResponses {
+
+    private SnapshotResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(Snapshot snapshot, WebRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        double br = snapshot.getBrotliJson() == null ? 0 : quality(acceptEncoding, "br");
+        double gzip = quality(acceptEncoding, "gzip");
+        if (br > 0 && br >= gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "br").body(snapshot.getBrotliJson());
+        }
+        if (gzip > 0) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipJson());
+        }
+        return builder.body(snapshot.getJson());
+    }
+
+    // the q-value of the coding, falling back to a "*" entry; 0 when the client does not accept it
+    private static double quality(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return 0;
+        }
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String name = parts[0].trim();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return q;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+}
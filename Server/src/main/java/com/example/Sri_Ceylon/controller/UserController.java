@@ -1,8 +1,8 @@
 package com.example.Sri_Ceylon.controller;
 
-import java.util.List;
 import java.util.Set;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -15,12 +15,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.Sri_Ceylon.dto.MessageResponse;
 import com.example.Sri_Ceylon.dto.UpdateUserRequest;
 import com.example.Sri_Ceylon.dto.UserResponse;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.example.Sri_Ceylon.service.FieldSelection;
 import com.example.Sri_Ceylon.service.UserService;
 
 import jakarta.validation.Valid;
@@ -36,10 +39,10 @@ public class UserController {
     
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<?> getCurrentUser(Authentication authentication, @RequestParam(required = false) String fields) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        UserResponse userResponse = userService.getUserById(userDetails.getId());
-        return ResponseEntity.ok(userResponse);
+        FieldSelection selection = FieldSelection.parse(fields, UserService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(userService.getUserById(userDetails.getId(), selection));
     }
 
     @GetMapping("/me/profile")
@@ -52,16 +55,24 @@ public class UserController {
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, UserService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(userService.getAllUsers(selection));
+    }
+
+    @GetMapping("/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userService::streamAllUsers);
     }
     
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.getUserById(#id).username == authentication.principal.username")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable String id) {
-        UserResponse userResponse = userService.getUserById(id);
-        return ResponseEntity.ok(userResponse);
+    @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
+    public ResponseEntity<?> getUserById(@PathVariable String id, @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, UserService.RESPONSE_FIELDS);
+        return ResponseEntity.ok(userService.getUserById(id, selection));
     }
     
     @GetMapping("/username/{username}")
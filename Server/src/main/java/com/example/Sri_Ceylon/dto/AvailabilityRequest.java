@@ -0,0 +1,20 @@
+package com.example.Sri_Ceylon.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRequest {
+    
+    @Size(max = 20, message = "At most 20 usernames per request")
+    private List<String> usernames;
+    
+    @Size(max = 20, message = "At most 20 emails per request")
+    private List<String> emails;
+}
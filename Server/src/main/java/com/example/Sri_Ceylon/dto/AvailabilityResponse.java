@@ -0,0 +1,18 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    
+    // candidate -> true when nobody uses it yet
+    private Map<String, Boolean> usernames;
+    
+    private Map<String, Boolean> emails;
+}
@@ -0,0 +1,13 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportError {
+    private long line;
+    private String message;
+}
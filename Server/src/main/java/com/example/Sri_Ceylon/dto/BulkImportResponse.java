@@ -0,0 +1,17 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private List<BulkImportError> errors = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexStatusResponse {
+    private String collection;
+    private String name;
+    private Map<String, Object> keys;
+    private boolean unique;
+    // PRESENT, MISSING, BUILDING, FAILED or UNDECLARED
+    private String status;
+    private String message;
+}
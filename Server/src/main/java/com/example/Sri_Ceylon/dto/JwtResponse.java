@@ -13,13 +13,17 @@ public class JwtResponse {
     
     private String token;
     private String type = "Bearer";
+    // exchange at /api/auth/refresh for a new token instead of logging in again
+    private String refreshToken;
     private String id;
     private String username;
     private String email;
     private List<String> roles;
     
-    public JwtResponse(String accessToken, String id, String username, String email, List<String> roles) {
+    public JwtResponse(String accessToken, String refreshToken, String id, String username, String email,
+                       List<String> roles) {
         this.token = accessToken;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.email = email;
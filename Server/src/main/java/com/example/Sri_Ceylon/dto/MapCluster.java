@@ -0,0 +1,20 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapCluster {
+    // hotels, destinations or events
+    private String type;
+    // centroid of the points in the cluster
+    private Double latitude;
+    private Double longitude;
+    private int count;
+    // only for a single point, so the client can render it as a normal marker
+    private String id;
+    private String title;
+}
@@ -0,0 +1,15 @@
+package com.example.Sri_Ceylon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapClusterResponse {
+    private int zoom;
+    private List<MapCluster> clusters;
+}
@@ -0,0 +1,21 @@
+package com.example.Sri_Ceylon.exception;
+
+import java.util.Map;
+
+/**
+ * A write hit a unique index. Carries one message per conflicting field, in the same
+ * shape as validation errors, and is answered with 409.
+ */
+public class DuplicateFieldException extends RuntimeException {
+
+    private final Map<String, String> fieldErrors;
+
+    public DuplicateFieldException(Map<String, String> fieldErrors) {
+        super(String.join(" ", fieldErrors.values()));
+        this.fieldErrors = fieldErrors;
+    }
+
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.Sri_Ceylon.exception;
+
+/**
+ * The refresh token is unknown, expired, already used or belongs to a disabled account;
+ * answered with 401 so the client falls back to a password login.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException() {
+        super("Refresh token is invalid or expired, please sign in again");
+    }
+}
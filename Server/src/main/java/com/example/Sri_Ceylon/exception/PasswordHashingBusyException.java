@@ -0,0 +1,18 @@
+package com.example.Sri_Ceylon.exception;
+
+/**
+ * The password hashing pool is saturated; answered with 503 and a Retry-After header.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Too many sign-in requests right now, please try again shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
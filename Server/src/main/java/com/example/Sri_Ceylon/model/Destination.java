@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "destinations")
-public class Destination {
+public class Destination implements Versioned {
     @Id
     private String id;
     
@@ -20,6 +20,7 @@ public class Destination {
     private Double latitude; // Geographic coordinate
     private Double longitude; // Geographic coordinate
     private LocalDateTime timestamp;
+    private Long version;
     
     @DBRef
     private User createdBy;
@@ -122,4 +123,14 @@ public class Destination {
     public void setCreatedBy(User createdBy) {
         this.createdBy = createdBy;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
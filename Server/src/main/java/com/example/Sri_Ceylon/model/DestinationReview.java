@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "destination_reviews")
-public class DestinationReview {
+public class DestinationReview implements Versioned {
     @Id
     private String id;
     
@@ -22,6 +22,7 @@ public class DestinationReview {
     private String review;
     private List<String> imageUrls;
     private LocalDateTime timestamp;
+    private Long version;
 
     // Constructors
     public DestinationReview() {
@@ -93,4 +94,14 @@ public class DestinationReview {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "events")
-public class Event {
+public class Event implements Versioned {
     @Id
     private String id;
     
@@ -21,6 +21,7 @@ public class Event {
     private Double latitude; // Geographic coordinate
     private Double longitude; // Geographic coordinate
     private LocalDateTime timestamp;
+    private Long version;
     
     @DBRef
     private User createdBy;
@@ -132,4 +133,14 @@ public class Event {
     public void setCreatedBy(User createdBy) {
         this.createdBy = createdBy;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
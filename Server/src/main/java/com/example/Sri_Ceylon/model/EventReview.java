@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "event_reviews")
-public class EventReview {
+public class EventReview implements Versioned {
     @Id
     private String id;
     
@@ -22,6 +22,7 @@ public class EventReview {
     private String review;
     private List<String> imageUrls;
     private LocalDateTime timestamp;
+    private Long version;
 
     // Constructors
     public EventReview() {
@@ -93,4 +94,14 @@ public class EventReview {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
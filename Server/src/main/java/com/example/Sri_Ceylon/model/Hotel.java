@@ -2,16 +2,15 @@ package com.example.Sri_Ceylon.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Document(collection = "hotels")
-public class Hotel {
+public class Hotel implements Versioned {
     @Id
     private String id;
 
@@ -23,17 +22,23 @@ public class Hotel {
     private String email;
     private String website;
     private List<String> amenities;
+    // amenities as amenityKey(), multikey indexed for search; kept up to date on save
+    private List<String> amenityKeys;
     private List<String> imageUrls;
 
-    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    // 2dsphere indexed together with isPaid, see IndexCatalogService
     private GeoJsonPoint coordinates;
 
     private Boolean isPaid = false; // Must pay to be visible
     private LocalDateTime createdAt = LocalDateTime.now();
+    private Long version;
 
     @DBRef
     private User createdBy;
 
+    // createdBy's id as a plain indexed field, kept up to date on save
+    private String ownerId;
+
     public Hotel() {}
 
     public String getId() { return id; }
@@ -63,6 +68,9 @@ public class Hotel {
     public List<String> getAmenities() { return amenities; }
     public void setAmenities(List<String> amenities) { this.amenities = amenities; }
 
+    public List<String> getAmenityKeys() { return amenityKeys; }
+    public void setAmenityKeys(List<String> amenityKeys) { this.amenityKeys = amenityKeys; }
+
     public List<String> getImageUrls() { return imageUrls; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
 
@@ -80,4 +88,17 @@ public class Hotel {
 
     public User getCreatedBy() { return createdBy; }
     public void setCreatedBy(User createdBy) { this.createdBy = createdBy; }
+
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+
+    /** The form amenities are searched by: trimmed, lower case, single spaces ("Free  WiFi " -> "free wifi"). */
+    public static String amenityKey(String amenity) {
+        return amenity.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public Long getVersion() { return version; }
+    @Override
+    public void setVersion(Long version) { this.version = version; }
 }
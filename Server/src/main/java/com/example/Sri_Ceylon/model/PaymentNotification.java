@@ -0,0 +1,50 @@
+package com.example.Sri_Ceylon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified PayHere notification, keyed by PayHere's {@code order_id} so that repeated
+ * deliveries of the same order land on the same document.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "payment_notifications")
+public class PaymentNotification {
+
+    public enum State {
+        // waiting for the worker, possibly after a failed attempt
+        PENDING,
+        // claimed by a worker until lockedUntil
+        PROCESSING,
+        PROCESSED,
+        // gave up; needs a look
+        FAILED,
+        // verified but not a completed payment (PayHere status_code other than 2)
+        IGNORED
+    }
+
+    @Id
+    private String orderId;
+
+    private String paymentId;
+    private String hotelId;
+    private String amount;
+    private String currency;
+    private String statusCode;
+
+    private State state;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime lockedUntil;
+    private String lastError;
+
+    private LocalDateTime receivedAt;
+    private LocalDateTime processedAt;
+}
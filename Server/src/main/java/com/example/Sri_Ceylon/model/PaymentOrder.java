@@ -0,0 +1,54 @@
+package com.example.Sri_Ceylon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment we generated a PayHere hash for, keyed by {@code order_id}. The status follows
+ * the notifications PayHere sends for the order; {@code nextCheckAt} is set while the
+ * order still needs something to happen (a payment outcome, or the hotel activation after
+ * it) and is when the reconciliation sweep looks at it next.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "payment_orders")
+public class PaymentOrder {
+
+    @Id
+    private String orderId;
+
+    private String hotelId;
+    private String userId;
+    private String amount;
+    private String currency;
+
+    private PaymentStatus status;
+    private String statusCode;
+    private String paymentId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime paidAt;
+    private LocalDateTime activatedAt;
+    private LocalDateTime nextCheckAt;
+
+    /** True when a notification reports the amount and currency this order was created with. */
+    public boolean matches(String notifiedAmount, String notifiedCurrency) {
+        if (amount == null || currency == null || notifiedAmount == null
+                || !currency.equalsIgnoreCase(String.valueOf(notifiedCurrency))) {
+            return false;
+        }
+        try {
+            return new BigDecimal(amount).compareTo(new BigDecimal(notifiedAmount)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
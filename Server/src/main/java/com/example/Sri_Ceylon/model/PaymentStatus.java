@@ -2,5 +2,13 @@ package com.example.Sri_Ceylon.model;
 
 public enum PaymentStatus {
     PENDING,
-    PAID
+    PAID,
+    // PayHere status_code -1
+    CANCELLED,
+    // PayHere status_code -2
+    FAILED,
+    // PayHere status_code -3, after PAID
+    CHARGEDBACK,
+    // no outcome reported within app.payments.order-expiry-ms
+    EXPIRED
 }
@@ -0,0 +1,38 @@
+package com.example.Sri_Ceylon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token. Only the SHA-256 of the token is stored; the token itself is
+ * returned to the client once. Every token descends from a login through {@code familyId},
+ * and Mongo removes documents once {@code expiresAt} has passed (TTL index).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    private String tokenHash;
+
+    private String userId;
+
+    private String familyId;
+
+    // when the login that started this family happened; caps sliding renewals
+    private LocalDateTime sessionStartedAt;
+
+    private LocalDateTime expiresAt;
+
+    // set when the token is exchanged; presenting it again means it was stolen
+    private LocalDateTime usedAt;
+}
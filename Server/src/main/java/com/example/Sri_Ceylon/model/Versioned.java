@@ -0,0 +1,11 @@
+package com.example.Sri_Ceylon.model;
+
+/**
+ * Documents carrying a revision number that is bumped on every save. The number backs
+ * the ETags served for the document.
+ */
+public interface Versioned {
+    Long getVersion();
+
+    void setVersion(Long version);
+}
@@ -13,5 +13,5 @@ public interface HotelRepository extends MongoRepository<Hotel, String> {
 
     List<Hotel> findByIsPaidTrueAndCoordinatesNear(Point point, Distance distance);
 
-    List<Hotel> findByCreatedBy_Id(String ownerId);
+    List<Hotel> findByOwnerId(String ownerId);
 }
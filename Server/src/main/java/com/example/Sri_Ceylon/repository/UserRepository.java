@@ -2,8 +2,11 @@ package com.example.Sri_Ceylon.repository;
 
 import com.example.Sri_Ceylon.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +21,8 @@ public interface UserRepository extends MongoRepository<User, String> {
     Boolean existsByEmail(String email);
     
     Optional<User> findByUsernameOrEmail(String username, String email);
+
+    // only what responses show about an author; never load credentials on the read path
+    @Query(fields = "{ 'username' : 1, 'profileImageUrl' : 1 }")
+    List<User> findSummariesByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,11 @@
+package com.example.Sri_Ceylon.repository.reactive;
+
+import com.example.Sri_Ceylon.model.DestinationReview;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveDestinationReviewRepository extends ReactiveMongoRepository<DestinationReview, String> {
+    Flux<DestinationReview> findByDestinationId(String destinationId);
+}
@@ -0,0 +1,9 @@
+package com.example.Sri_Ceylon.repository.reactive;
+
+import com.example.Sri_Ceylon.model.Event;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String> {
+}
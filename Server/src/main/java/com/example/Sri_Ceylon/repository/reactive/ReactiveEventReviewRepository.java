@@ -0,0 +1,11 @@
+package com.example.Sri_Ceylon.repository.reactive;
+
+import com.example.Sri_Ceylon.model.EventReview;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveEventReviewRepository extends ReactiveMongoRepository<EventReview, String> {
+    Flux<EventReview> findByEventId(String eventId);
+}
@@ -0,0 +1,15 @@
+package com.example.Sri_Ceylon.repository.reactive;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveHotelRepository extends ReactiveMongoRepository<Hotel, String> {
+    Flux<Hotel> findByIsPaidTrue();
+
+    Flux<Hotel> findByIsPaidTrueAndCoordinatesNear(Point point, Distance distance);
+}
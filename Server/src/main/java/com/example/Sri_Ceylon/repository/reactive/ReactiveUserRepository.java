@@ -0,0 +1,16 @@
+package com.example.Sri_Ceylon.repository.reactive;
+
+import com.example.Sri_Ceylon.model.User;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    // only what responses show about an author; never load credentials on the read path
+    @Query(fields = "{ 'username' : 1, 'profileImageUrl' : 1 }")
+    Flux<User> findSummariesByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,113 @@
+package com.example.Sri_Ceylon.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * PayHere request hashes and notification signatures:
+ * <pre>
+ * hash   = MD5(merchant_id + order_id + amount + currency + MD5(merchant_secret)).toUpperCase()
+ * md5sig = MD5(merchant_id + order_id + amount + currency + status_code + MD5(merchant_secret)).toUpperCase()
+ * </pre>
+ * with both inner digests as upper-case hex. The secret's digest is computed once, the
+ * fields are fed to a per-thread {@link MessageDigest} one by one instead of being
+ * concatenated, and signatures are compared in constant time.
+ */
+@Component
+public class PaymentSigner {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    });
+
+    private final String merchantId;
+    private final byte[] merchantIdBytes;
+    private final byte[] hashedSecret;
+
+    public PaymentSigner(@Value("${payhere.merchant.id:1233905}") String merchantId,
+                         @Value("${payhere.merchant.secret:YOUR_MERCHANT_SECRET_HERE}") String merchantSecret) {
+        this.merchantId = merchantId;
+        this.merchantIdBytes = merchantId.getBytes(StandardCharsets.UTF_8);
+        this.hashedSecret = hex(digest(merchantSecret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    /** The {@code hash} the checkout form is submitted with. */
+    public String sign(String orderId, String amount, String currency) {
+        MessageDigest md = MD5.get();
+        md.update(merchantIdBytes);
+        update(md, orderId);
+        update(md, amount);
+        update(md, currency);
+        md.update(hashedSecret);
+        return new String(hex(md.digest()), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Checks a notification's {@code md5sig} (hex, either case) against the fields it
+     * came with. Takes the same time wherever the first wrong character is.
+     */
+    public boolean verify(String merchantId, String orderId, String amount, String currency, String statusCode,
+                          String md5sig) {
+        byte[] received = unhex(md5sig);
+        if (received == null) {
+            return false;
+        }
+        MessageDigest md = MD5.get();
+        update(md, merchantId);
+        update(md, orderId);
+        update(md, amount);
+        update(md, currency);
+        update(md, statusCode);
+        md.update(hashedSecret);
+        return MessageDigest.isEqual(md.digest(), received);
+    }
+
+    private static byte[] digest(byte[] input) {
+        return MD5.get().digest(input);
+    }
+
+    // a missing field hashes as "null", as it did when the fields were concatenated
+    private static void update(MessageDigest md, String field) {
+        md.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] hex(byte[] bytes) {
+        byte[] out = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[2 * i] = HEX[(bytes[i] >> 4) & 0x0f];
+            out[2 * i + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return out;
+    }
+
+    // 16 bytes from 32 hex characters, or null for anything else
+    private static byte[] unhex(String hex) {
+        if (hex == null || hex.length() != 32) {
+            return null;
+        }
+        byte[] out = new byte[16];
+        for (int i = 0; i < out.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            out[i] = (byte) ((high << 4) | low);
+        }
+        return out;
+    }
+}
@@ -3,7 +3,12 @@ package com.example.Sri_Ceylon.security;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,16 +16,31 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
-    
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
     private final UserRepository userRepository;
-    
+    private final MongoTemplate mongoTemplate;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsernameOrEmail(username, username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + username));
-        
+
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash is
+     * outdated (see {@code PasswordHashingConfig}). Only the password field is written so a
+     * concurrent profile update is not overwritten.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetailsImpl details = (UserDetailsImpl) user;
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(details.getId())),
+                Update.update("password", newPassword), User.class);
+        details.setPassword(newPassword);
+        return details;
+    }
 }
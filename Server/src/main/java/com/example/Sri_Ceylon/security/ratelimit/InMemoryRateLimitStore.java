@@ -0,0 +1,95 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buckets in this JVM. A bucket is one {@link AtomicLong} holding the time its next token
+ * becomes free, updated by compare-and-set, so contended keys never take a lock. Keys are
+ * spread over independent maps by hash; full buckets are dropped by a periodic sweep, and
+ * a stripe that reaches its share of {@code app.rate-limit.memory.max-keys} is swept
+ * immediately. If it is still full, new keys pass untracked rather than evicting live ones.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int maxKeysPerStripe;
+    private final AtomicBoolean fullWarned = new AtomicBoolean();
+
+    @SuppressWarnings("unchecked")
+    public InMemoryRateLimitStore(@Value("${app.rate-limit.memory.max-keys:200000}") int maxKeys) {
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+    }
+
+    @Override
+    public long tryAcquire(String key, long intervalNanos, int burst) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            return 0;
+        }
+        long tolerance = intervalNanos * burst;
+        while (true) {
+            long freeAt = bucket.get();
+            long next = Math.max(freeAt, now) + intervalNanos;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(freeAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxKeysPerStripe) {
+            sweep(stripe, now);
+            if (stripe.size() >= maxKeysPerStripe) {
+                if (fullWarned.compareAndSet(false, true)) {
+                    log.warn("Rate limit store is full ({} keys per stripe), new clients are not limited",
+                            maxKeysPerStripe);
+                }
+                return null;
+            }
+        }
+        // starts full: the first request of a key is never limited
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.memory.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            sweep(stripe, now);
+        }
+        fullWarned.set(false);
+    }
+
+    // a bucket whose next token is already free is full, the same as a missing one; a
+    // request racing the removal can at worst get one extra token
+    private static void sweep(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets shared by every node, one document per key in {@code rate_limits}. The whole
+ * check-and-take runs server side as a single pipeline update, so concurrent nodes cannot
+ * both spend the last token. Times are epoch milliseconds from the caller's clock; keep
+ * node clocks in sync. Idle buckets are removed by the TTL index on {@code expiresAt}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "mongo")
+public class MongoRateLimitStore implements RateLimitStore {
+
+    static final String COLLECTION = "rate_limits";
+
+    private static final FindOneAndUpdateOptions UPSERT_RETURN_AFTER = new FindOneAndUpdateOptions()
+            .upsert(true)
+            .returnDocument(ReturnDocument.AFTER);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoRateLimitStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, long intervalNanos, int burst) {
+        long now = System.currentTimeMillis();
+        // at least 1ms, or a very high limit would never fill the bucket
+        long interval = Math.max(1, TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+        long tolerance = interval * burst;
+
+        List<Document> pipeline = List.of(
+                // freeAt = max(freeAt, now) + interval: the bucket after taking a token
+                new Document("$set", new Document("freeAt", new Document("$add", List.of(
+                        new Document("$max", List.of(new Document("$ifNull", List.of("$freeAt", now)), now)),
+                        interval)))),
+                new Document("$set", new Document("allowed", new Document("$lte", List.of(
+                        new Document("$subtract", List.of("$freeAt", now)), tolerance)))),
+                // denied requests leave the bucket as it was
+                new Document("$set", new Document("freeAt", new Document("$cond", List.of(
+                        "$allowed", "$freeAt", new Document("$subtract", List.of("$freeAt", interval)))))),
+                new Document("$set", new Document("expiresAt", new Document("$toDate", "$freeAt"))));
+
+        Document bucket = collection().findOneAndUpdate(new Document("_id", key), pipeline, UPSERT_RETURN_AFTER);
+        if (bucket == null || bucket.getBoolean("allowed", true)) {
+            return 0;
+        }
+        long wait = bucket.getLong("freeAt") + interval - now - tolerance;
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(wait, 1));
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+import com.example.Sri_Ceylon.dto.MessageResponse;
+import com.example.Sri_Ceylon.security.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client throttling for the API, applied right after {@code AuthTokenFilter}. Each
+ * request falls into the first matching route group and takes a token from the bucket of
+ * (group, user) when a valid token was sent, otherwise (group, client IP); login and
+ * signup are always keyed by IP. Limits are {@code app.rate-limit.<group>.per-minute}
+ * and {@code .burst}. Over the limit the answer is 429 with {@code Retry-After}.
+ * <p>
+ * The client IP is {@code getRemoteAddr()}; behind a proxy set
+ * {@code server.forward-headers-strategy=native} so it is the caller, not the proxy.
+ * If the store fails (e.g. the shared Mongo is down) requests are let through.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<RouteGroup> groups;
+    private final Counter storeErrors;
+
+    public RateLimitFilter(RateLimitStore store, MeterRegistry meterRegistry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.auth.per-minute:20}") int authPerMinute,
+                           @Value("${app.rate-limit.auth.burst:10}") int authBurst,
+                           @Value("${app.rate-limit.chat.per-minute:10}") int chatPerMinute,
+                           @Value("${app.rate-limit.chat.burst:5}") int chatBurst,
+                           @Value("${app.rate-limit.payment-notify.per-minute:600}") int paymentNotifyPerMinute,
+                           @Value("${app.rate-limit.payment-notify.burst:200}") int paymentNotifyBurst,
+                           @Value("${app.rate-limit.payments.per-minute:30}") int paymentsPerMinute,
+                           @Value("${app.rate-limit.payments.burst:10}") int paymentsBurst,
+                           @Value("${app.rate-limit.catalog.per-minute:600}") int catalogPerMinute,
+                           @Value("${app.rate-limit.catalog.burst:100}") int catalogBurst,
+                           @Value("${app.rate-limit.api.per-minute:300}") int apiPerMinute,
+                           @Value("${app.rate-limit.api.burst:60}") int apiBurst) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        // first match wins
+        this.groups = List.of(
+                new RouteGroup("auth", null, List.of("/api/auth/"), true, authPerMinute, authBurst),
+                new RouteGroup("chat", null, List.of("/api/chat"), false, chatPerMinute, chatBurst),
+                // PayHere's servers, all from a few IPs; md5sig already keeps forgeries out
+                new RouteGroup("payment-notify", HttpMethod.POST, List.of("/api/payments/notify"), true,
+                        paymentNotifyPerMinute, paymentNotifyBurst),
+                new RouteGroup("payments", null, List.of("/api/payments/"), false, paymentsPerMinute, paymentsBurst),
+                new RouteGroup("catalog", HttpMethod.GET, List.of("/api/destinations", "/api/events",
+                        "/api/hotels", "/api/map/", "/api/reactive/", "/api/uploads/"), false, catalogPerMinute,
+                        catalogBurst),
+                new RouteGroup("api", null, List.of("/api/"), false, apiPerMinute, apiBurst));
+        this.storeErrors = Counter.builder("app.rate_limit.store_errors").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteGroup group = match(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos;
+        try {
+            waitNanos = store.tryAcquire(group.name() + ":" + client(request, group), group.intervalNanos(), group.burst());
+        } catch (RuntimeException e) {
+            storeErrors.increment();
+            log.warn("Rate limit store unavailable, letting request through: {}", e.getMessage());
+            waitNanos = 0;
+        }
+        if (waitNanos <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        meterRegistry.counter("app.rate_limit.rejected", "group", group.name()).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        MAPPER.writeValue(response.getOutputStream(),
+                new MessageResponse("Too many requests, please retry in " + retryAfterSeconds + "s"));
+    }
+
+    private RouteGroup match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RouteGroup group : groups) {
+            if (group.matches(request.getMethod(), path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static String client(HttpServletRequest request, RouteGroup group) {
+        if (!group.byIpOnly()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+                return "user:" + user.getId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record RouteGroup(String name, HttpMethod method, List<String> prefixes, boolean byIpOnly,
+                              long intervalNanos, int burst) {
+
+        RouteGroup(String name, HttpMethod method, List<String> prefixes, boolean byIpOnly, int perMinute, int burst) {
+            this(name, method, prefixes, byIpOnly, TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute),
+                    Math.max(1, burst));
+        }
+
+        boolean matches(String requestMethod, String path) {
+            if (method != null && !method.matches(requestMethod)) {
+                return false;
+            }
+            for (String prefix : prefixes) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
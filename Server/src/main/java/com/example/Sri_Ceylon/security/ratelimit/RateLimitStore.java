@@ -0,0 +1,18 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+/**
+ * Where the buckets live. Each bucket is a GCRA token bucket: requests drain it at most
+ * once per {@code intervalNanos} on average, with up to {@code burst} requests at once
+ * after a quiet period. Refill is continuous, so there are no window edges to game.
+ * Selected by {@code app.rate-limit.store}: {@code memory} (per node) or {@code mongo}
+ * (shared by every node).
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket under {@code key}.
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until a token is free
+     */
+    long tryAcquire(String key, long intervalNanos, int burst);
+}
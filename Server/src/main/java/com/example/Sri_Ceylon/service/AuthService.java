@@ -1,12 +1,15 @@
 package com.example.Sri_Ceylon.service;
 
 import com.example.Sri_Ceylon.dto.*;
+import com.example.Sri_Ceylon.exception.InvalidRefreshTokenException;
 import com.example.Sri_Ceylon.model.Role;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.UserRepository;
 import com.example.Sri_Ceylon.security.UserDetailsImpl;
 import com.example.Sri_Ceylon.security.jwt.JwtUtils;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -15,7 +18,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,8 +31,13 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final RefreshTokenService refreshTokenService;
+    private final UserAvailabilityService userAvailabilityService;
     
-    @Transactional
+    // the principal already carries everything the response needs, so the user is read
+    // once (by the authentication provider) and lastLoginAt is written later in a batch
+    @Observed(name = "app.service")
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword())
@@ -44,25 +51,41 @@ public class AuthService {
                 .map(item -> item.getAuthority())
                 .collect(Collectors.toList());
         
-        // Update last login time
-        userRepository.findById(userDetails.getId()).ifPresent(user -> {
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
-        });
+        lastLoginRecorder.record(userDetails.getId());
+        String refreshToken = refreshTokenService.issue(userDetails.getId());
         
-        return new JwtResponse(jwt, userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles);
+        return new JwtResponse(jwt, refreshToken, userDetails.getId(), userDetails.getUsername(),
+                userDetails.getEmail(), roles);
     }
     
-    @Transactional
-    public MessageResponse registerUser(SignupRequest signupRequest) {
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
-            throw new RuntimeException("Error: Username is already taken!");
-        }
+    // no password check: one indexed lookup of the token and one of the user
+    @Observed(name = "app.service")
+    public JwtResponse refreshToken(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userRepository.findById(rotation.userId())
+                .filter(found -> found.isEnabled() && found.isAccountNonLocked())
+                .orElseThrow(() -> {
+                    refreshTokenService.revokeAll(rotation.userId());
+                    return new InvalidRefreshTokenException();
+                });
         
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
-            throw new RuntimeException("Error: Email is already in use!");
-        }
+        String jwt = jwtUtils.generateTokenFromUsername(user.getUsername());
+        List<String> roles = user.getRoles().stream()
+                .map(Role::name)
+                .collect(Collectors.toList());
         
+        return new JwtResponse(jwt, rotation.refreshToken(), user.getId(), user.getUsername(), user.getEmail(), roles);
+    }
+    
+    @Observed(name = "app.service")
+    public MessageResponse logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return new MessageResponse("Signed out");
+    }
+    
+    @Transactional
+    @Observed(name = "app.service")
+    public MessageResponse registerUser(SignupRequest signupRequest) {
         User user = new User();
         user.setUsername(signupRequest.getUsername());
         user.setEmail(signupRequest.getEmail());
@@ -92,7 +115,13 @@ public class AuthService {
         }
         
         user.setRoles(roles);
-        userRepository.save(user);
+        // the unique indexes on username and email decide; checked up front only until they are verified
+        userAvailabilityService.checkBeforeWrite(null, user.getUsername(), user.getEmail());
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw userAvailabilityService.conflict(null, user.getUsername(), user.getEmail());
+        }
         
         return new MessageResponse("User registered successfully!");
     }
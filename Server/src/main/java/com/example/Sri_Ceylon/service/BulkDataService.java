@@ -0,0 +1,190 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.BulkImportError;
+import com.example.Sri_Ceylon.dto.BulkImportResponse;
+import com.example.Sri_Ceylon.config.MongoConfig;
+import com.example.Sri_Ceylon.dto.CreateDestinationRequest;
+import com.example.Sri_Ceylon.dto.CreateEventRequest;
+import com.example.Sri_Ceylon.dto.CreateHotelRequest;
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.User;
+import com.example.Sri_Ceylon.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Newline-delimited JSON import and export for catalog data. Imports are parsed line
+ * by line and written with unordered bulk inserts; exports stream from a cursor on the
+ * catalog read template.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkDataService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final DestinationService destinationService;
+    private final EventService eventService;
+    private final HotelService hotelService;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final CatalogVersionService catalogVersionService;
+
+    // not final: Lombok does not copy the qualifier onto the constructor
+    @Autowired
+    @Qualifier(MongoConfig.CATALOG_READ_TEMPLATE)
+    private MongoTemplate catalogReadTemplate;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.bulk.export-cursor-batch-size:500}")
+    private int exportCursorBatchSize;
+
+    public BulkImportResponse importDestinations(InputStream in, String username) throws IOException {
+        return importLines(in, username, CreateDestinationRequest.class, Destination.class,
+                CatalogVersionService.DESTINATIONS, destinationService::buildDestination);
+    }
+
+    public BulkImportResponse importEvents(InputStream in, String username) throws IOException {
+        return importLines(in, username, CreateEventRequest.class, Event.class,
+                CatalogVersionService.EVENTS, eventService::buildEvent);
+    }
+
+    public BulkImportResponse importHotels(InputStream in, String username) throws IOException {
+        return importLines(in, username, CreateHotelRequest.class, Hotel.class,
+                CatalogVersionService.HOTELS, hotelService::buildHotel);
+    }
+
+    public void exportDestinations(OutputStream out) throws IOException {
+        exportLines(out, Destination.class, destinationService::mapToDestinationResponse);
+    }
+
+    public void exportEvents(OutputStream out) throws IOException {
+        exportLines(out, Event.class, eventService::mapToEventResponse);
+    }
+
+    public void exportHotels(OutputStream out) throws IOException {
+        exportLines(out, Hotel.class, hotelService::mapToResponse);
+    }
+
+    private <R, E> BulkImportResponse importLines(InputStream in, String username, Class<R> requestType,
+                                                  Class<E> entityType, String collection,
+                                                  BiFunction<R, User, E> toEntity) throws IOException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        BulkImportResponse report = new BulkImportResponse();
+        List<E> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.setReceived(report.getReceived() + 1);
+
+            R request;
+            try {
+                request = jsonMapper.readValue(line, requestType);
+            } catch (JacksonException e) {
+                recordError(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+
+            Set<ConstraintViolation<R>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                recordError(report, lineNumber, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            batch.add(toEntity.apply(request, user));
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                flush(report, entityType, batch, batchLines);
+            }
+        }
+        flush(report, entityType, batch, batchLines);
+        if (report.getImported() > 0) {
+            catalogVersionService.bump(collection);
+        }
+        return report;
+    }
+
+    private <E> void flush(BulkImportResponse report, Class<E> entityType, List<E> batch, List<Long> batchLines) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityType)
+                    .insert(batch)
+                    .execute()
+                    .getInsertedCount();
+            report.setImported(report.getImported() + inserted);
+        } catch (BulkOperationException e) {
+            report.setImported(report.getImported() + e.getResult().getInsertedCount());
+            for (BulkWriteError error : e.getErrors()) {
+                recordError(report, batchLines.get(error.getIndex()), error.getMessage());
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void recordError(BulkImportResponse report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new BulkImportError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private <E> void exportLines(OutputStream out, Class<E> entityType, Function<E, ?> toResponse) throws IOException {
+        // createdBy is a DBRef; resolving it would cost one extra query per exported document
+        Query query = new Query().cursorBatchSize(exportCursorBatchSize);
+        query.fields().exclude("createdBy");
+
+        try (Stream<E> stream = catalogReadTemplate.stream(query, entityType)) {
+            jsonStreamWriter.writeLines(stream.map(toResponse), out);
+        }
+    }
+}
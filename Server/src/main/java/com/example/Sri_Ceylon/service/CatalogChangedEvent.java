@@ -0,0 +1,23 @@
+package com.example.Sri_Ceylon.service;
+
+/**
+ * Published after a catalog collection's change counter has been bumped.
+ */
+public class CatalogChangedEvent {
+
+    private final String collection;
+    private final long version;
+
+    public CatalogChangedEvent(String collection, long version) {
+        this.collection = collection;
+        this.version = version;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
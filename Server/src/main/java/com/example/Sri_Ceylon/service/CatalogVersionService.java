@@ -0,0 +1,145 @@
+package com.example.Sri_Ceylon.service;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Validators for catalog resources. Each collection has a change counter that is bumped
+ * on every write and drives the ETag of its list endpoints; single documents are tagged
+ * with their own revision. Both are cheap enough to check before loading any documents.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    public static final String DESTINATIONS = "destinations";
+    public static final String EVENTS = "events";
+    public static final String HOTELS = "hotels";
+    public static final String DESTINATION_REVIEWS = "destination_reviews";
+    public static final String EVENT_REVIEWS = "event_reviews";
+
+    static final String COUNTERS_COLLECTION = "catalog_versions";
+
+    private static final ClientSessionOptions CAUSALLY_CONSISTENT = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public long currentVersion(String collection) {
+        return currentVersion(mongoTemplate, collection);
+    }
+
+    private static long currentVersion(MongoOperations operations, String collection) {
+        Document counter = operations.findById(collection, Document.class, COUNTERS_COLLECTION);
+        if (counter == null) {
+            return 0L;
+        }
+        return ((Number) counter.get("counter")).longValue();
+    }
+
+    /**
+     * Reads the counter of {@code collection} on the primary, then runs {@code read} against
+     * {@code readTemplate} in the same causally consistent session. The member serving the
+     * read first catches up with the counter read, so data loaded from a lagging secondary
+     * may be newer than the version it is paired with, but never older.
+     */
+    public <T> T readAtCurrentVersion(String collection, MongoTemplate readTemplate, VersionedRead<T> read) {
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSALLY_CONSISTENT)) {
+            long version = currentVersion(mongoTemplate.withSession(session), collection);
+            MongoTemplate source = readTemplate.withSession(session);
+            // the session-bound copy does not inherit the read preference
+            if (readTemplate.hasReadPreference()) {
+                source.setReadPreference(readTemplate.getReadPreference());
+            }
+            return read.read(version, source);
+        }
+    }
+
+    public long bump(String collection) {
+        Document counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(collection)),
+                new Update().inc("counter", 1L),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                COUNTERS_COLLECTION);
+        long version = counter == null ? 0L : ((Number) counter.get("counter")).longValue();
+        eventPublisher.publishEvent(new CatalogChangedEvent(collection, version));
+        return version;
+    }
+
+    /**
+     * ETag for a list endpoint at {@code version}, as read by {@link #currentVersion}.
+     * Anything that changes the shape of the response, such as a fields selection or query
+     * parameters, has to be passed as a variant.
+     */
+    public String collectionETag(String collection, long version, Object... variant) {
+        return "\"" + collection + "-" + version + variantSuffix(variant) + "\"";
+    }
+
+    public Optional<DocumentVersion> documentVersion(String collection, String id, String timestampField) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("version", timestampField);
+        Document doc = mongoTemplate.findOne(query, Document.class, collection);
+        if (doc == null) {
+            return Optional.empty();
+        }
+        Object version = doc.get("version");
+        Object timestamp = doc.get(timestampField);
+        return Optional.of(new DocumentVersion(id,
+                version instanceof Number ? ((Number) version).longValue() : 0L,
+                timestamp instanceof Date ? ((Date) timestamp).getTime() : -1L));
+    }
+
+    private static String variantSuffix(Object... variant) {
+        if (variant == null || variant.length == 0) {
+            return "";
+        }
+        return "-" + Integer.toHexString(Arrays.deepHashCode(variant));
+    }
+
+    @FunctionalInterface
+    public interface VersionedRead<T> {
+        T read(long version, MongoOperations source);
+    }
+
+    public static class DocumentVersion {
+        private final String id;
+        private final long version;
+        private final long createdAtMillis;
+
+        DocumentVersion(String id, long version, long createdAtMillis) {
+            this.id = id;
+            this.version = version;
+            this.createdAtMillis = createdAtMillis;
+        }
+
+        public String etag(Object... variant) {
+            return "\"" + id + "-" + version + variantSuffix(variant) + "\"";
+        }
+
+        /**
+         * The stored timestamps record creation, so they only double as a modification
+         * time while the document is still at its first revision. Otherwise -1 is
+         * returned and clients have to rely on the ETag.
+         */
+        public long lastModified() {
+            return version == 1L ? createdAtMillis : -1L;
+        }
+    }
+}
@@ -2,29 +2,87 @@ package com.example.Sri_Ceylon.service;
 
 import com.google.genai.Client;
 import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ChatService {
 
+    private static final String MODEL = "gemini-2.5-flash";
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
-    public String getChatResponse(String userMessage) {
-        Client client = Client.builder().apiKey(apiKey).build();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    private Counter promptTokens;
+    private Counter responseTokens;
+
+    // one client for the whole app: building it per request set up (and leaked) a new HTTP connection pool every call
+    private Client client;
+
+    @PostConstruct
+    public void init() {
+        client = Client.builder().apiKey(apiKey).build();
+        promptTokens = tokenCounter("prompt");
+        responseTokens = tokenCounter("response");
+    }
 
+    private Counter tokenCounter(String type) {
+        return Counter.builder("app.gemini.tokens")
+                .description("Tokens billed by Gemini")
+                .tags("model", MODEL, "type", type)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    public String getChatResponse(String userMessage) {
         // The "Brain" of your bot
         String systemInstruction = "You are 'Aayu', a specialized Sri Lankan Tour Guide. " +
             "Respond ONLY to Sri Lankan travel and culture queries. " +
             "Greet with 'Ayubowan'. For off-topic questions, politely decline.";
 
-        GenerateContentResponse response = client.models.generateContent(
-                "gemini-2.5-flash", 
-                systemInstruction + "\nUser Question: " + userMessage, 
-                null
-        );
+        // timer app.gemini.requests plus a client span around the model call
+        Observation observation = Observation.createNotStarted("app.gemini.requests", observationRegistry)
+                .contextualName("gemini generateContent")
+                .lowCardinalityKeyValue("model", MODEL);
+        GenerateContentResponse response = observation.observe(() -> {
+            GenerateContentResponse generated = client.models.generateContent(
+                    MODEL,
+                    systemInstruction + "\nUser Question: " + userMessage,
+                    null
+            );
+            generated.usageMetadata().ifPresent(usage -> countTokens(usage, observation));
+            return generated;
+        });
 
         return response.text();
     }
-}
\ No newline at end of file
+
+    private void countTokens(GenerateContentResponseUsageMetadata usage, Observation observation) {
+        int prompt = usage.promptTokenCount().orElse(0);
+        // thinking tokens are billed as output
+        int output = usage.candidatesTokenCount().orElse(0) + usage.thoughtsTokenCount().orElse(0);
+        promptTokens.increment(prompt);
+        responseTokens.increment(output);
+        // high cardinality: on the span only, not a meter tag
+        observation.highCardinalityKeyValue("gen_ai.usage.input_tokens", String.valueOf(prompt));
+        observation.highCardinalityKeyValue("gen_ai.usage.output_tokens", String.valueOf(output));
+    }
+}
@@ -9,18 +9,41 @@ import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.DestinationRepository;
 import com.example.Sri_Ceylon.repository.DestinationReviewRepository;
 import com.example.Sri_Ceylon.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class DestinationReviewService {
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("destinationId", List.of("destination")),
+            Map.entry("destinationTitle", List.of("destination")),
+            Map.entry("userId", List.of("user")),
+            Map.entry("username", List.of("user")),
+            Map.entry("userProfileImageUrl", List.of("user")),
+            Map.entry("rate", List.of("rate")),
+            Map.entry("review", List.of("review")),
+            Map.entry("imageUrls", List.of("imageUrls")),
+            Map.entry("timestamp", List.of("timestamp")));
     
     @Autowired
     private DestinationReviewRepository destinationReviewRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
     
     @Autowired
     private DestinationRepository destinationRepository;
@@ -28,6 +51,7 @@ public class DestinationReviewService {
     @Autowired
     private UserRepository userRepository;
 
+    @Observed(name = "app.service")
     public DestinationReviewResponse createReview(CreateDestinationReviewRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -44,9 +68,11 @@ public class DestinationReviewService {
         review.setTimestamp(LocalDateTime.now());
         
         DestinationReview savedReview = destinationReviewRepository.save(review);
+        catalogVersionService.bump(CatalogVersionService.DESTINATION_REVIEWS);
         return mapToResponse(savedReview);
     }
 
+    @Observed(name = "app.service")
     public DestinationReviewResponse updateReview(String reviewId, UpdateDestinationReviewRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -65,9 +91,11 @@ public class DestinationReviewService {
         }
         
         DestinationReview updatedReview = destinationReviewRepository.save(review);
+        catalogVersionService.bump(CatalogVersionService.DESTINATION_REVIEWS);
         return mapToResponse(updatedReview);
     }
 
+    @Observed(name = "app.service")
     public void deleteReview(String reviewId, String username, boolean isAdmin) {
         DestinationReview review = destinationReviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + reviewId));
@@ -77,21 +105,26 @@ public class DestinationReviewService {
         }
         
         destinationReviewRepository.delete(review);
+        catalogVersionService.bump(CatalogVersionService.DESTINATION_REVIEWS);
     }
 
-    public List<DestinationReviewResponse> getReviewsByDestinationId(String destinationId) {
-        return destinationReviewRepository.findByDestinationId(destinationId).stream()
-                .map(this::mapToResponse)
+    @Observed(name = "app.service")
+    public List<Object> getReviewsByDestinationId(String destinationId, FieldSelection selection) {
+        Query query = selection.applyTo(new Query(Criteria.where("destination.id").is(destinationId)));
+        return mongoTemplate.find(query, DestinationReview.class).stream()
+                .map(review -> selection.filter(mapToResponse(review)))
                 .collect(Collectors.toList());
     }
 
-    public DestinationReviewResponse getReviewById(String reviewId) {
-        DestinationReview review = destinationReviewRepository.findById(reviewId)
+    @Observed(name = "app.service")
+    public Object getReviewById(String reviewId, FieldSelection selection) {
+        DestinationReview review = selection.findById(reviewId, destinationReviewRepository::findById, mongoTemplate,
+                        DestinationReview.class)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + reviewId));
-        return mapToResponse(review);
+        return selection.filter(mapToResponse(review));
     }
 
-    private DestinationReviewResponse mapToResponse(DestinationReview review) {
+    DestinationReviewResponse mapToResponse(DestinationReview review) {
         DestinationReviewResponse response = new DestinationReviewResponse();
         response.setId(review.getId());
         response.setRate(review.getRate());
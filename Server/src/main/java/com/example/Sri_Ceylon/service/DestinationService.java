@@ -7,15 +7,32 @@ import com.example.Sri_Ceylon.model.Destination;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.DestinationRepository;
 import com.example.Sri_Ceylon.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class DestinationService {
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("title", List.of("title")),
+            Map.entry("description", List.of("description")),
+            Map.entry("imageUrls", List.of("imageUrls")),
+            Map.entry("bestSeasonToVisit", List.of("bestSeasonToVisit")),
+            Map.entry("location", List.of("location")),
+            Map.entry("latitude", List.of("latitude")),
+            Map.entry("longitude", List.of("longitude")),
+            Map.entry("timestamp", List.of("timestamp")),
+            Map.entry("createdById", List.of("createdBy")),
+            Map.entry("createdByUsername", List.of("createdBy")));
     
     @Autowired
     private DestinationRepository destinationRepository;
@@ -23,10 +40,23 @@ public class DestinationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Observed(name = "app.service")
     public DestinationResponse createDestination(CreateDestinationRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        Destination savedDestination = destinationRepository.save(buildDestination(request, user));
+        catalogVersionService.bump(CatalogVersionService.DESTINATIONS);
+        return mapToDestinationResponse(savedDestination);
+    }
+
+    Destination buildDestination(CreateDestinationRequest request, User user) {
         Destination destination = new Destination();
         destination.setTitle(request.getTitle());
         destination.setDescription(request.getDescription());
@@ -37,11 +67,10 @@ public class DestinationService {
         destination.setLongitude(request.getLongitude());
         destination.setTimestamp(LocalDateTime.now());
         destination.setCreatedBy(user);
-        
-        Destination savedDestination = destinationRepository.save(destination);
-        return mapToDestinationResponse(savedDestination);
+        return destination;
     }
 
+    @Observed(name = "app.service")
     public DestinationResponse updateDestination(String destinationId, UpdateDestinationRequest request) {
         Destination destination = destinationRepository.findById(destinationId)
                 .orElseThrow(() -> new RuntimeException("Destination not found with id: " + destinationId));
@@ -69,28 +98,34 @@ public class DestinationService {
         }
         
         Destination updatedDestination = destinationRepository.save(destination);
+        catalogVersionService.bump(CatalogVersionService.DESTINATIONS);
         return mapToDestinationResponse(updatedDestination);
     }
 
+    @Observed(name = "app.service")
     public void deleteDestination(String destinationId) {
         Destination destination = destinationRepository.findById(destinationId)
                 .orElseThrow(() -> new RuntimeException("Destination not found with id: " + destinationId));
         destinationRepository.delete(destination);
+        catalogVersionService.bump(CatalogVersionService.DESTINATIONS);
     }
 
-    public List<DestinationResponse> getAllDestinations() {
-        return destinationRepository.findAll().stream()
-                .map(this::mapToDestinationResponse)
+    @Observed(name = "app.service")
+    public List<Object> getAllDestinations(FieldSelection selection) {
+        return mongoTemplate.find(selection.applyTo(new Query()), Destination.class).stream()
+                .map(destination -> selection.filter(mapToDestinationResponse(destination)))
                 .collect(Collectors.toList());
     }
 
-    public DestinationResponse getDestinationById(String destinationId) {
-        Destination destination = destinationRepository.findById(destinationId)
+    @Observed(name = "app.service")
+    public Object getDestinationById(String destinationId, FieldSelection selection) {
+        Destination destination = selection.findById(destinationId, destinationRepository::findById, mongoTemplate,
+                        Destination.class)
                 .orElseThrow(() -> new RuntimeException("Destination not found with id: " + destinationId));
-        return mapToDestinationResponse(destination);
+        return selection.filter(mapToDestinationResponse(destination));
     }
 
-    private DestinationResponse mapToDestinationResponse(Destination destination) {
+    DestinationResponse mapToDestinationResponse(Destination destination) {
         DestinationResponse response = new DestinationResponse();
         response.setId(destination.getId());
         response.setTitle(destination.getTitle());
@@ -0,0 +1,145 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.EventReview;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished events and their reviews out of the hot collections so that the
+ * working set of "events" and "event_reviews" stays small. Archived documents are
+ * copied verbatim, so they can still be read back by id, except that an archived
+ * review's event reference points at "events_archive", where its event now lives.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventArchiveService {
+
+    public static final String EVENTS_COLLECTION = "events";
+    public static final String EVENT_REVIEWS_COLLECTION = "event_reviews";
+    public static final String EVENTS_ARCHIVE_COLLECTION = "events_archive";
+    public static final String EVENT_REVIEWS_ARCHIVE_COLLECTION = "event_reviews_archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersionService catalogVersionService;
+
+    @Value("${app.archive.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.events.horizon-days:90}")
+    private long horizonDays;
+
+    @Value("${app.archive.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.events.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(initialDelayString = "${app.archive.events.initial-delay-ms:60000}",
+            fixedDelayString = "${app.archive.events.interval-ms:3600000}")
+    public void archivePastEvents() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        int archived = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int moved = archiveBatch(cutoff);
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            catalogVersionService.bump(CatalogVersionService.EVENTS);
+            catalogVersionService.bump(CatalogVersionService.EVENT_REVIEWS);
+            log.info("Archived {} events that ended before {}", archived, cutoff);
+        }
+    }
+
+    /**
+     * Archives one batch of events ending before the cutoff. Copies are upserted
+     * before the originals are removed, so an interrupted run is simply repeated.
+     */
+    int archiveBatch(LocalDateTime cutoff) {
+        Query eventQuery = new Query(Criteria.where("end").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "end"))
+                .limit(batchSize);
+        List<Document> events = mongoTemplate.find(eventQuery, Document.class, EVENTS_COLLECTION);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Object> eventIds = events.stream()
+                .map(doc -> doc.get("_id"))
+                .collect(Collectors.toList());
+
+        archiveReviewsOf(eventIds);
+
+        copyToArchive(events, EVENTS_ARCHIVE_COLLECTION);
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(eventIds)), EVENTS_COLLECTION);
+        return events.size();
+    }
+
+    private void archiveReviewsOf(List<Object> eventIds) {
+        Query reviewQuery = new Query(Criteria.where("event.$id").in(eventIds)).limit(batchSize);
+        List<Document> reviews;
+        do {
+            reviews = mongoTemplate.find(reviewQuery, Document.class, EVENT_REVIEWS_COLLECTION);
+            if (reviews.isEmpty()) {
+                break;
+            }
+            for (Document review : reviews) {
+                if (review.get("event") instanceof DBRef event) {
+                    review.put("event", new DBRef(EVENTS_ARCHIVE_COLLECTION, event.getId()));
+                }
+            }
+            copyToArchive(reviews, EVENT_REVIEWS_ARCHIVE_COLLECTION);
+            List<Object> reviewIds = reviews.stream()
+                    .map(doc -> doc.get("_id"))
+                    .collect(Collectors.toList());
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(reviewIds)), EVENT_REVIEWS_COLLECTION);
+        } while (reviews.size() == batchSize);
+    }
+
+    private void copyToArchive(List<Document> documents, String archiveCollection) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, archiveCollection);
+        for (Document doc : documents) {
+            bulk.replaceOne(new Query(Criteria.where("_id").is(doc.get("_id"))), doc, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    public Optional<Event> findArchivedEvent(String eventId) {
+        return Optional.ofNullable(mongoTemplate.findById(eventId, Event.class, EVENTS_ARCHIVE_COLLECTION));
+    }
+
+    public Optional<EventReview> findArchivedReview(String reviewId) {
+        return Optional.ofNullable(mongoTemplate.findById(reviewId, EventReview.class, EVENT_REVIEWS_ARCHIVE_COLLECTION));
+    }
+
+    public List<EventReview> findArchivedReviewsByEventId(String eventId) {
+        if (!ObjectId.isValid(eventId)) {
+            return List.of();
+        }
+        Query query = new Query(Criteria.where("event.$id").is(new ObjectId(eventId)));
+        return mongoTemplate.find(query, EventReview.class, EVENT_REVIEWS_ARCHIVE_COLLECTION);
+    }
+}
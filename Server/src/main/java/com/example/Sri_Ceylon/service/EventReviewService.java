@@ -9,18 +9,41 @@ import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.EventRepository;
 import com.example.Sri_Ceylon.repository.EventReviewRepository;
 import com.example.Sri_Ceylon.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class EventReviewService {
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("eventId", List.of("event")),
+            Map.entry("eventTitle", List.of("event")),
+            Map.entry("userId", List.of("user")),
+            Map.entry("username", List.of("user")),
+            Map.entry("userProfileImageUrl", List.of("user")),
+            Map.entry("rate", List.of("rate")),
+            Map.entry("review", List.of("review")),
+            Map.entry("imageUrls", List.of("imageUrls")),
+            Map.entry("timestamp", List.of("timestamp")));
     
     @Autowired
     private EventReviewRepository eventReviewRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
     
     @Autowired
     private EventRepository eventRepository;
@@ -28,6 +51,10 @@ public class EventReviewService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    @Observed(name = "app.service")
     public EventReviewResponse createReview(CreateEventReviewRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -44,9 +71,11 @@ public class EventReviewService {
         review.setTimestamp(LocalDateTime.now());
         
         EventReview savedReview = eventReviewRepository.save(review);
+        catalogVersionService.bump(CatalogVersionService.EVENT_REVIEWS);
         return mapToResponse(savedReview);
     }
 
+    @Observed(name = "app.service")
     public EventReviewResponse updateReview(String reviewId, UpdateEventReviewRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -65,9 +94,11 @@ public class EventReviewService {
         }
         
         EventReview updatedReview = eventReviewRepository.save(review);
+        catalogVersionService.bump(CatalogVersionService.EVENT_REVIEWS);
         return mapToResponse(updatedReview);
     }
 
+    @Observed(name = "app.service")
     public void deleteReview(String reviewId, String username, boolean isAdmin) {
         EventReview review = eventReviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + reviewId));
@@ -77,21 +108,32 @@ public class EventReviewService {
         }
         
         eventReviewRepository.delete(review);
+        catalogVersionService.bump(CatalogVersionService.EVENT_REVIEWS);
     }
 
-    public List<EventReviewResponse> getReviewsByEventId(String eventId) {
-        return eventReviewRepository.findByEventId(eventId).stream()
-                .map(this::mapToResponse)
+    @Observed(name = "app.service")
+    public List<Object> getReviewsByEventId(String eventId, FieldSelection selection) {
+        Query query = selection.applyTo(new Query(Criteria.where("event.id").is(eventId)));
+        List<EventReview> reviews = mongoTemplate.find(query, EventReview.class);
+        // the archive is only asked when the event itself has been archived, not for a live event without reviews
+        if (reviews.isEmpty() && !eventRepository.existsById(eventId)) {
+            reviews = eventArchiveService.findArchivedReviewsByEventId(eventId);
+        }
+        return reviews.stream()
+                .map(review -> selection.filter(mapToResponse(review)))
                 .collect(Collectors.toList());
     }
 
-    public EventReviewResponse getReviewById(String reviewId) {
-        EventReview review = eventReviewRepository.findById(reviewId)
+    @Observed(name = "app.service")
+    public Object getReviewById(String reviewId, FieldSelection selection) {
+        EventReview review = selection.findById(reviewId, eventReviewRepository::findById, mongoTemplate,
+                        EventReview.class)
+                .or(() -> eventArchiveService.findArchivedReview(reviewId))
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + reviewId));
-        return mapToResponse(review);
+        return selection.filter(mapToResponse(review));
     }
 
-    private EventReviewResponse mapToResponse(EventReview review) {
+    EventReviewResponse mapToResponse(EventReview review) {
         EventReviewResponse response = new EventReviewResponse();
         response.setId(review.getId());
         response.setRate(review.getRate());
@@ -7,26 +7,60 @@ import com.example.Sri_Ceylon.model.Event;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.EventRepository;
 import com.example.Sri_Ceylon.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class EventService {
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("title", List.of("title")),
+            Map.entry("description", List.of("description")),
+            Map.entry("imageUrls", List.of("imageUrls")),
+            Map.entry("start", List.of("start")),
+            Map.entry("end", List.of("end")),
+            Map.entry("location", List.of("location")),
+            Map.entry("latitude", List.of("latitude")),
+            Map.entry("longitude", List.of("longitude")),
+            Map.entry("timestamp", List.of("timestamp")),
+            Map.entry("createdById", List.of("createdBy")),
+            Map.entry("createdByUsername", List.of("createdBy")));
     
     @Autowired
     private EventRepository eventRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
     
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    @Observed(name = "app.service")
     public EventResponse createEvent(CreateEventRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        Event savedEvent = eventRepository.save(buildEvent(request, user));
+        catalogVersionService.bump(CatalogVersionService.EVENTS);
+        return mapToEventResponse(savedEvent);
+    }
+
+    Event buildEvent(CreateEventRequest request, User user) {
         Event event = new Event();
         event.setTitle(request.getTitle());
         event.setDescription(request.getDescription());
@@ -38,11 +72,10 @@ public class EventService {
         event.setLongitude(request.getLongitude());
         event.setTimestamp(LocalDateTime.now());
         event.setCreatedBy(user);
-        
-        Event savedEvent = eventRepository.save(event);
-        return mapToEventResponse(savedEvent);
+        return event;
     }
 
+    @Observed(name = "app.service")
     public EventResponse updateEvent(String eventId, UpdateEventRequest request) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
@@ -73,28 +106,34 @@ public class EventService {
         }
         
         Event updatedEvent = eventRepository.save(event);
+        catalogVersionService.bump(CatalogVersionService.EVENTS);
         return mapToEventResponse(updatedEvent);
     }
 
+    @Observed(name = "app.service")
     public void deleteEvent(String eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
         eventRepository.delete(event);
+        catalogVersionService.bump(CatalogVersionService.EVENTS);
     }
 
-    public List<EventResponse> getAllEvents() {
-        return eventRepository.findAll().stream()
-                .map(this::mapToEventResponse)
+    @Observed(name = "app.service")
+    public List<Object> getAllEvents(FieldSelection selection) {
+        return mongoTemplate.find(selection.applyTo(new Query()), Event.class).stream()
+                .map(event -> selection.filter(mapToEventResponse(event)))
                 .collect(Collectors.toList());
     }
 
-    public EventResponse getEventById(String eventId) {
-        Event event = eventRepository.findById(eventId)
+    @Observed(name = "app.service")
+    public Object getEventById(String eventId, FieldSelection selection) {
+        Event event = selection.findById(eventId, eventRepository::findById, mongoTemplate, Event.class)
+                .or(() -> eventArchiveService.findArchivedEvent(eventId))
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
-        return mapToEventResponse(event);
+        return selection.filter(mapToEventResponse(event));
     }
 
-    private EventResponse mapToEventResponse(Event event) {
+    EventResponse mapToEventResponse(Event event) {
         EventResponse response = new EventResponse();
         response.setId(event.getId());
         response.setTitle(event.getTitle());
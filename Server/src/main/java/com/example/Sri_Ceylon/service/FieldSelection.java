@@ -0,0 +1,112 @@
+package com.example.Sri_Ceylon.service;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A parsed {@code fields=} parameter. Requested response properties are translated into
+ * a Mongo projection so unused fields are never loaded, and responses are trimmed down
+ * to just those properties. Without the parameter every field is selected, and the
+ * services serve both forms through the same read.
+ */
+public final class FieldSelection {
+
+    private static final FieldSelection ALL = new FieldSelection(Set.of(), Set.of());
+
+    private final Set<String> responseFields;
+    private final Set<String> entityFields;
+
+    private FieldSelection(Set<String> responseFields, Set<String> entityFields) {
+        this.responseFields = responseFields;
+        this.entityFields = entityFields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * @param fields           comma separated response property names, or null for all of them
+     * @param responseToEntity the entity properties each response property is built from
+     */
+    public static FieldSelection parse(String fields, Map<String, List<String>> responseToEntity) {
+        if (fields == null) {
+            return ALL;
+        }
+        Set<String> responseFields = new LinkedHashSet<>();
+        Set<String> entityFields = new LinkedHashSet<>();
+        entityFields.add("id");
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            List<String> mapped = responseToEntity.get(field);
+            if (mapped == null) {
+                throw new RuntimeException("Unknown field: " + field + ". Allowed fields: "
+                        + responseToEntity.keySet().stream().sorted().collect(Collectors.joining(",")));
+            }
+            responseFields.add(field);
+            entityFields.addAll(mapped);
+        }
+        // the id is always returned so clients can follow up with a detail request
+        responseFields.add("id");
+        return new FieldSelection(Collections.unmodifiableSet(responseFields), Collections.unmodifiableSet(entityFields));
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public Set<String> getResponseFields() {
+        return responseFields;
+    }
+
+    public Query applyTo(Query query) {
+        if (!isAll()) {
+            query.fields().include(entityFields.toArray(new String[0]));
+        }
+        return query;
+    }
+
+    /**
+     * Loads one document by id: through {@code findById}, usually a repository method,
+     * when every field is selected, otherwise with the projection.
+     */
+    public <E> Optional<E> findById(String id, Function<String, Optional<E>> findById, MongoOperations operations,
+                                    Class<E> type) {
+        if (isAll()) {
+            return findById.apply(id);
+        }
+        return Optional.ofNullable(operations.findOne(applyTo(new Query(Criteria.where("id").is(id))), type));
+    }
+
+    /**
+     * The response itself when every field is selected, otherwise a map of just the
+     * selected properties.
+     */
+    public Object filter(Object response) {
+        if (isAll()) {
+            return response;
+        }
+        BeanWrapper wrapper = new BeanWrapperImpl(response);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String field : responseFields) {
+            result.put(field, wrapper.getPropertyValue(field));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills in {@code ownerId} and {@code amenityKeys} on hotels saved before those fields
+ * existed, once at startup and in the background. Reads the raw documents so the owner
+ * DBRef is not resolved, and writes in unordered bulks. Filled-in hotels no longer match,
+ * so later runs find nothing to do. A failed run is retried every
+ * {@code app.hotels.backfill-retry-ms}; until one completes, {@link #isComplete} is false
+ * and owner lookups also match the creator reference.
+ */
+@Service
+@Slf4j
+public class HotelSearchFieldsBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean complete;
+
+    public HotelSearchFieldsBackfill(MongoTemplate mongoTemplate,
+                                     @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        executor.execute(this::backfillUntilComplete);
+    }
+
+    @Scheduled(initialDelayString = "${app.hotels.backfill-retry-ms:300000}",
+            fixedDelayString = "${app.hotels.backfill-retry-ms:300000}")
+    public void backfillUntilComplete() {
+        if (complete || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            backfill();
+            complete = true;
+        } catch (RuntimeException e) {
+            log.error("Hotel search field backfill failed, will retry: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** True once every hotel saved before ownerId and amenityKeys existed has them. */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long backfill() {
+        MongoCollection<Document> hotels = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Hotel.class));
+        Bson missing = Filters.or(
+                Filters.and(Filters.exists("ownerId", false), Filters.ne("createdBy", null)),
+                Filters.and(Filters.exists("amenityKeys", false), Filters.ne("amenities", null)));
+
+        long updated = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        try (MongoCursor<Document> cursor = hotels.find(missing)
+                .projection(Projections.include("createdBy", "amenities"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document hotel = cursor.next();
+                Document set = new Document();
+                String ownerId = ownerId(hotel.get("createdBy"));
+                if (ownerId != null) {
+                    set.put("ownerId", ownerId);
+                }
+                if (hotel.get("amenities") instanceof List<?> amenities) {
+                    set.put("amenityKeys", amenities.stream()
+                            .filter(amenity -> amenity instanceof String text && !text.isBlank())
+                            .map(amenity -> Hotel.amenityKey((String) amenity))
+                            .distinct()
+                            .toList());
+                }
+                if (set.isEmpty()) {
+                    continue;
+                }
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", hotel.get("_id")), new Document("$set", set)));
+                if (batch.size() == BATCH_SIZE) {
+                    updated += flush(hotels, batch);
+                }
+            }
+        }
+        updated += flush(hotels, batch);
+        if (updated > 0) {
+            log.info("Filled in owner and amenity search fields on {} hotels", updated);
+        }
+        return updated;
+    }
+
+    private static long flush(MongoCollection<Document> hotels, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = hotels.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        batch.clear();
+        return modified;
+    }
+
+    // the driver may hand a DBRef back as a DBRef or as a plain {$ref, $id} document
+    static String ownerId(Object createdBy) {
+        Object id = null;
+        if (createdBy instanceof DBRef ref) {
+            id = ref.getId();
+        } else if (createdBy instanceof Document ref) {
+            id = ref.get("$id");
+        }
+        return id == null ? null : id.toString();
+    }
+}
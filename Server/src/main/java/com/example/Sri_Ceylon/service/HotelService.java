@@ -1,7 +1,9 @@
 package com.example.Sri_Ceylon.service;
 
+import com.example.Sri_Ceylon.config.MongoConfig;
 import com.example.Sri_Ceylon.dto.CreateHotelRequest;
 import com.example.Sri_Ceylon.dto.HotelResponse;
+import com.example.Sri_Ceylon.dto.PageResponse;
 import com.example.Sri_Ceylon.dto.UpdateHotelRequest;
 import com.example.Sri_Ceylon.model.Hotel;
 import com.example.Sri_Ceylon.model.PaymentStatus;
@@ -9,25 +11,86 @@ import com.example.Sri_Ceylon.model.Role;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.HotelRepository;
 import com.example.Sri_Ceylon.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.observation.annotation.Observed;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.geo.Distance;
-import org.springframework.data.geo.Metrics;
-import org.springframework.data.geo.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class HotelService {
 
+    private static final int STREAM_CURSOR_BATCH_SIZE = 500;
+
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // deeper pages would have Mongo skip more than this many hotels
+    static final int MAX_SEARCH_OFFSET = 10_000;
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("name", List.of("name")),
+            Map.entry("description", List.of("description")),
+            Map.entry("address", List.of("address")),
+            Map.entry("phones", List.of("phones")),
+            Map.entry("whatsapp", List.of("whatsapp")),
+            Map.entry("email", List.of("email")),
+            Map.entry("website", List.of("website")),
+            Map.entry("amenities", List.of("amenities")),
+            Map.entry("imageUrls", List.of("imageUrls")),
+            Map.entry("latitude", List.of("coordinates")),
+            Map.entry("longitude", List.of("coordinates")),
+            Map.entry("isPaid", List.of("isPaid")),
+            Map.entry("createdAt", List.of("createdAt")),
+            Map.entry("createdById", List.of("createdBy")),
+            Map.entry("createdByUsername", List.of("createdBy")));
+
+    // what mapToResponse reads, with the owner as its id
+    private static final String[] EXPORT_FIELDS = Stream.concat(
+                    RESPONSE_FIELDS.values().stream().flatMap(List::stream), Stream.of("ownerId"))
+            .distinct()
+            .toArray(String[]::new);
+
     @Autowired
     private HotelRepository hotelRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier(MongoConfig.CATALOG_READ_TEMPLATE)
+    private MongoTemplate catalogReadTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private JsonStreamWriter jsonStreamWriter;
+
+    @Autowired
+    private HotelSearchFieldsBackfill hotelSearchFieldsBackfill;
+
+    @Observed(name = "app.service")
     public HotelResponse createHotel(CreateHotelRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -38,6 +101,12 @@ public class HotelService {
             userRepository.save(user);
         }
 
+        Hotel saved = hotelRepository.save(buildHotel(request, user));
+        catalogVersionService.bump(CatalogVersionService.HOTELS);
+        return mapToResponse(saved);
+    }
+
+    Hotel buildHotel(CreateHotelRequest request, User user) {
         Hotel hotel = new Hotel();
         hotel.setName(request.getName());
         hotel.setDescription(request.getDescription());
@@ -51,11 +120,10 @@ public class HotelService {
         hotel.setCoordinates(new GeoJsonPoint(request.getLongitude(), request.getLatitude()));
         hotel.setIsPaid(false); // Must pay to be visible
         hotel.setCreatedBy(user);
-
-        Hotel saved = hotelRepository.save(hotel);
-        return mapToResponse(saved);
+        return hotel;
     }
 
+    @Observed(name = "app.service")
     public HotelResponse updateHotel(String hotelId, UpdateHotelRequest request) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hotel not found with id: " + hotelId));
@@ -77,57 +145,200 @@ public class HotelService {
         }
 
         Hotel updated = hotelRepository.save(hotel);
+        catalogVersionService.bump(CatalogVersionService.HOTELS);
         return mapToResponse(updated);
     }
 
+    @Observed(name = "app.service")
     public void setHotelPaid(String hotelId) {
-        Hotel hotel = hotelRepository.findById(hotelId)
-                .orElseThrow(() -> new RuntimeException("Hotel not found with id: " + hotelId));
-        hotel.setIsPaid(true);
-        hotelRepository.save(hotel);
+        if (!markHotelPaid(hotelId)) {
+            throw new RuntimeException("Hotel not found with id: " + hotelId);
+        }
     }
 
-    public List<HotelResponse> getAllHotels() {
-        return hotelRepository.findByIsPaidTrue().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Makes the hotel visible with a single {@code $set}, so a concurrent edit of other
+     * fields is not overwritten. Repeating it is harmless: the catalog version only moves
+     * when the flag actually changed. Returns false when there is no such hotel.
+     */
+    @Observed(name = "app.service")
+    public boolean markHotelPaid(String hotelId) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(hotelId).and("isPaid").ne(true)),
+                new Update().set("isPaid", true).inc("version", 1),
+                Hotel.class);
+        if (result.getModifiedCount() > 0) {
+            catalogVersionService.bump(CatalogVersionService.HOTELS);
+            return true;
+        }
+        // already paid, or missing
+        return hotelRepository.existsById(hotelId);
     }
 
+    @Observed(name = "app.service")
     public List<HotelResponse> getAllHotelsForAdmin() {
         return hotelRepository.findAll().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    public HotelResponse getHotelById(String hotelId) {
-        Hotel hotel = hotelRepository.findById(hotelId)
-                .orElseThrow(() -> new RuntimeException("Hotel not found with id: " + hotelId));
-        return mapToResponse(hotel);
+    /**
+     * Every hotel as one JSON array, straight from a cursor. The owner reference is read as
+     * an id and the owners are looked up with one query per cursor batch instead of being
+     * resolved hotel by hotel.
+     */
+    @Observed(name = "app.service")
+    public void streamAllHotelsForAdmin(OutputStream out) {
+        Query query = new Query().cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        query.fields().include(EXPORT_FIELDS);
+        try (Stream<Document> hotels = catalogReadTemplate.stream(query, Document.class,
+                catalogReadTemplate.getCollectionName(Hotel.class))) {
+            Iterator<Document> cursor = hotels.iterator();
+            Stream<HotelResponse> responses = Stream.generate(() -> nextExportBatch(cursor))
+                    .takeWhile(batch -> !batch.isEmpty())
+                    .flatMap(List::stream);
+            jsonStreamWriter.writeArray(responses, out);
+        }
     }
 
-    public List<HotelResponse> getNearbyHotels(Double latitude, Double longitude, double radiusKm) {
-        Point point = new Point(longitude, latitude);
-        Distance distance = new Distance(radiusKm, Metrics.KILOMETERS);
-        return hotelRepository.findByIsPaidTrueAndCoordinatesNear(point, distance)
-                .stream()
+    private List<HotelResponse> nextExportBatch(Iterator<Document> cursor) {
+        List<Hotel> batch = new ArrayList<>(STREAM_CURSOR_BATCH_SIZE);
+        while (batch.size() < STREAM_CURSOR_BATCH_SIZE && cursor.hasNext()) {
+            Document doc = cursor.next();
+            // taken out before mapping, which would resolve the DBRef
+            Object createdBy = doc.remove("createdBy");
+            Hotel hotel = catalogReadTemplate.getConverter().read(Hotel.class, doc);
+            if (hotel.getOwnerId() == null) {
+                hotel.setOwnerId(HotelSearchFieldsBackfill.ownerId(createdBy));
+            }
+            batch.add(hotel);
+        }
+        Set<String> ownerIds = batch.stream()
+                .map(Hotel::getOwnerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, User> owners = ownerIds.isEmpty() ? Map.of() : userRepository.findSummariesByIdIn(ownerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (Hotel hotel : batch) {
+            hotel.setCreatedBy(hotel.getOwnerId() == null ? null : owners.get(hotel.getOwnerId()));
+        }
+        return batch.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Observed(name = "app.service")
+    public List<Object> getAllHotels(FieldSelection selection) {
+        return mongoTemplate.find(selection.applyTo(paidHotels()), Hotel.class).stream()
+                .map(hotel -> selection.filter(mapToResponse(hotel)))
+                .collect(Collectors.toList());
+    }
+
+    @Observed(name = "app.service")
+    public Object getHotelById(String hotelId, FieldSelection selection) {
+        Hotel hotel = selection.findById(hotelId, hotelRepository::findById, mongoTemplate, Hotel.class)
+                .orElseThrow(() -> new RuntimeException("Hotel not found with id: " + hotelId));
+        return selection.filter(mapToResponse(hotel));
+    }
+
+    @Observed(name = "app.service")
+    public List<Object> getNearbyHotels(Double latitude, Double longitude, double radiusKm, FieldSelection selection) {
+        Query query = selection.applyTo(nearbyPaidHotels(latitude, longitude, radiusKm));
+        return mongoTemplate.find(query, Hotel.class).stream()
+                .map(hotel -> selection.filter(mapToResponse(hotel)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Paid hotels with the given amenities (all of them, or any when {@code matchAll} is
+     * false; compared by {@link Hotel#amenityKey}), optionally within {@code radiusKm} of a
+     * point, nearest first, otherwise newest first. Both forms are served by an index.
+     */
+    @Observed(name = "app.service")
+    public PageResponse<Object> searchHotels(List<String> amenities, boolean matchAll, Double latitude,
+                                             Double longitude, double radiusKm, int page, int size,
+                                             FieldSelection selection) {
+        Query query = selection.applyTo(searchQuery(amenities, matchAll, latitude, longitude, radiusKm, page, size));
+        return page(mongoTemplate.find(query, Hotel.class).stream()
+                .map(hotel -> selection.filter(mapToResponse(hotel)))
+                .collect(Collectors.toList()), page, size);
+    }
+
+    private static Query searchQuery(List<String> amenities, boolean matchAll, Double latitude, Double longitude,
+                                     double radiusKm, int page, int size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new RuntimeException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (page < 0 || (long) page * size > MAX_SEARCH_OFFSET) {
+            throw new RuntimeException("page must be between 0 and " + MAX_SEARCH_OFFSET / size);
+        }
+        if ((latitude == null) != (longitude == null)) {
+            throw new RuntimeException("lat and lng must be given together");
+        }
+
+        Criteria criteria = Criteria.where("isPaid").is(true);
+        List<String> keys = amenities == null ? List.of() : amenities.stream()
+                .filter(amenity -> amenity != null && !amenity.isBlank())
+                .map(Hotel::amenityKey)
+                .distinct()
+                .toList();
+        if (!keys.isEmpty()) {
+            criteria = matchAll ? criteria.and("amenityKeys").all(keys) : criteria.and("amenityKeys").in(keys);
+        }
+
+        Query query;
+        if (latitude != null) {
+            // $nearSphere returns nearest first, no sort needed
+            query = new Query(criteria.and("coordinates").nearSphere(new GeoJsonPoint(longitude, latitude))
+                    .maxDistance(radiusKm * 1000));
+        } else {
+            query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+        // one extra to tell whether there is a next page
+        return query.skip((long) page * size).limit(size + 1);
+    }
+
+    private static <T> PageResponse<T> page(List<T> items, int page, int size) {
+        boolean hasNext = items.size() > size;
+        return new PageResponse<>(hasNext ? items.subList(0, size) : items, page, size, hasNext);
+    }
+
+    static Query paidHotels() {
+        return new Query(Criteria.where("isPaid").is(true));
+    }
+
+    private static Query nearbyPaidHotels(Double latitude, Double longitude, double radiusKm) {
+        return new Query(Criteria.where("isPaid").is(true)
+                .and("coordinates").nearSphere(new GeoJsonPoint(longitude, latitude))
+                .maxDistance(radiusKm * 1000));
+    }
+
+    @Observed(name = "app.service")
     public void deleteHotel(String hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hotel not found with id: " + hotelId));
         hotelRepository.delete(hotel);
+        catalogVersionService.bump(CatalogVersionService.HOTELS);
     }
 
+    @Observed(name = "app.service")
     public List<HotelResponse> getHotelsByOwner(String ownerId) {
-        return hotelRepository.findByCreatedBy_Id(ownerId)
+        List<Hotel> hotels;
+        if (hotelSearchFieldsBackfill.isComplete()) {
+            hotels = hotelRepository.findByOwnerId(ownerId);
+        } else {
+            // older hotels may not have an ownerId yet; their creator reference still says whose they are
+            hotels = mongoTemplate.find(new Query(new Criteria().orOperator(
+                    Criteria.where("ownerId").is(ownerId),
+                    Criteria.where("createdBy.id").is(ownerId))), Hotel.class);
+        }
+        return hotels
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    private HotelResponse mapToResponse(Hotel hotel) {
+    HotelResponse mapToResponse(Hotel hotel) {
         HotelResponse response = new HotelResponse();
         response.setId(hotel.getId());
         response.setName(hotel.getName());
@@ -0,0 +1,278 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.IndexStatusResponse;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.model.IndexOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * The indexes every query path relies on, declared in one place. Missing indexes are
+ * built off the startup thread once the application is ready; existing indexes are
+ * matched by key pattern and by their unique and TTL options, so an index created by hand
+ * under another name still counts but a plain index on the keys of a unique one does not.
+ * Indexes found in the database but not declared here are reported, never dropped.
+ */
+@Service
+@Slf4j
+public class IndexCatalogService {
+
+    static final List<DeclaredIndex> DECLARED = List.of(
+            // login, signup checks and findByUsernameOrEmail
+            unique("users", new Document("username", 1)),
+            unique("users", new Document("email", 1)),
+            // DestinationReviewRepository.findByDestinationId and the fields= variant
+            index("destination_reviews", new Document("destination.$id", 1)),
+            // EventReviewRepository.findByEventId and the archive job's review sweep
+            index("event_reviews", new Document("event.$id", 1)),
+            index("event_reviews_archive", new Document("event.$id", 1)),
+            // UserService.invalidateAuthoredContent: content by an author whose profile changed
+            index("destination_reviews", new Document("user.$id", 1)),
+            index("event_reviews", new Document("user.$id", 1)),
+            index("destinations", new Document("createdBy.$id", 1)),
+            index("events", new Document("createdBy.$id", 1)),
+            // EventArchiveService filters and sorts on end
+            index("events", new Document("end", 1)),
+            // HotelRepository.findByIsPaidTrue
+            index("hotels", new Document("isPaid", 1)),
+            // HotelRepository.findByIsPaidTrueAndCoordinatesNear, and HotelService.searchHotels
+            // with a location: amenities are matched within the index scan
+            index("hotels", new Document("isPaid", 1).append("coordinates", "2dsphere").append("amenityKeys", 1)),
+            // HotelService.searchHotels without a location, newest first
+            index("hotels", new Document("isPaid", 1).append("amenityKeys", 1).append("createdAt", -1)),
+            // HotelRepository.findByOwnerId
+            index("hotels", new Document("ownerId", 1)),
+            // HotelService.getHotelsByOwner also matches the creator reference until the
+            // ownerId backfill has completed; UserService.invalidateAuthoredContent
+            index("hotels", new Document("createdBy.$id", 1)),
+            // RefreshTokenService: lookup by hash, revocation by family and user, expiry
+            unique("refresh_tokens", new Document("tokenHash", 1)),
+            index("refresh_tokens", new Document("familyId", 1)),
+            index("refresh_tokens", new Document("userId", 1)),
+            ttl("refresh_tokens", new Document("expiresAt", 1), 0),
+            // MongoRateLimitStore (app.rate-limit.store=mongo): idle buckets expire
+            ttl("rate_limits", new Document("expiresAt", 1), 0),
+            // PaymentNotificationService.claim: due notifications and expired leases
+            index("payment_notifications", new Document("state", 1).append("nextAttemptAt", 1)),
+            // PaymentOrderService.findOrders by hotel or status; the reconciliation sweep only
+            // touches orders that still have a nextCheckAt
+            index("payment_orders", new Document("hotelId", 1)),
+            index("payment_orders", new Document("status", 1).append("updatedAt", -1)),
+            index("payment_orders", new Document("nextCheckAt", 1)));
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+    private final Set<String> verified = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public IndexCatalogService(MongoTemplate mongoTemplate,
+                               @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildMissingIndexesOnStartup() {
+        buildMissingIndexes();
+    }
+
+    /**
+     * Starts building whatever is missing in the background. Returns false when a build
+     * is already running.
+     */
+    public boolean buildMissingIndexes() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    for (DeclaredIndex declared : DECLARED) {
+                        ensure(declared);
+                    }
+                } catch (MongoTimeoutException e) {
+                    // no server reachable; every remaining index would wait out the same timeout
+                    log.error("Index build stopped, Mongo is unreachable: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void ensure(DeclaredIndex declared) {
+        try {
+            if (existingSignatures(declared.collection()).contains(declared.signature())) {
+                failures.remove(declared.id());
+                verified.add(declared.id());
+                return;
+            }
+            building.add(declared.id());
+            log.info("Building index {} on {}", declared.name(), declared.collection());
+            mongoTemplate.getCollection(declared.collection()).createIndex(declared.keys(),
+                    indexOptions(declared));
+            failures.remove(declared.id());
+            verified.add(declared.id());
+        } catch (MongoTimeoutException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            verified.remove(declared.id());
+            log.error("Could not build index {} on {}: {}", declared.name(), declared.collection(), e.getMessage());
+            failures.put(declared.id(), e.getMessage());
+        } finally {
+            building.remove(declared.id());
+        }
+    }
+
+    /**
+     * True once every unique index declared on the collection has been found or built,
+     * by the startup build or the last {@link #verify}. Until then writes that rely on
+     * them have to check for duplicates themselves.
+     */
+    public boolean uniqueIndexesVerified(String collection) {
+        return DECLARED.stream()
+                .filter(declared -> declared.unique() && declared.collection().equals(collection))
+                .allMatch(declared -> verified.contains(declared.id()));
+    }
+
+    /**
+     * Compares the declared catalog with the indexes that actually exist.
+     */
+    public List<IndexStatusResponse> verify() {
+        List<IndexStatusResponse> report = new ArrayList<>();
+        Set<String> collections = DECLARED.stream()
+                .map(DeclaredIndex::collection)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        for (String collection : collections) {
+            List<Document> existing = listIndexes(collection);
+            Set<String> existingSignatures = existing.stream()
+                    .map(IndexCatalogService::signature)
+                    .collect(Collectors.toSet());
+            Set<String> declaredSignatures = new HashSet<>();
+
+            for (DeclaredIndex declared : DECLARED) {
+                if (!declared.collection().equals(collection)) {
+                    continue;
+                }
+                String signature = declared.signature();
+                declaredSignatures.add(signature);
+                String status;
+                String message = null;
+                if (existingSignatures.contains(signature)) {
+                    status = "PRESENT";
+                    verified.add(declared.id());
+                } else if (building.contains(declared.id())) {
+                    status = "BUILDING";
+                } else if (failures.containsKey(declared.id())) {
+                    status = "FAILED";
+                    message = failures.get(declared.id());
+                } else {
+                    status = "MISSING";
+                }
+                if (!"PRESENT".equals(status)) {
+                    verified.remove(declared.id());
+                }
+                report.add(new IndexStatusResponse(collection, declared.name(), declared.keys(),
+                        declared.unique(), status, message));
+            }
+
+            for (Document index : existing) {
+                Document keys = index.get("key", Document.class);
+                if (!"_id_".equals(index.getString("name")) && !declaredSignatures.contains(signature(index))) {
+                    report.add(new IndexStatusResponse(collection, index.getString("name"), keys,
+                            Boolean.TRUE.equals(index.getBoolean("unique")), "UNDECLARED", null));
+                }
+            }
+        }
+        return report;
+    }
+
+    private Set<String> existingSignatures(String collection) {
+        return listIndexes(collection).stream()
+                .map(IndexCatalogService::signature)
+                .collect(Collectors.toSet());
+    }
+
+    private List<Document> listIndexes(String collection) {
+        // an empty list for a collection that does not exist yet
+        return mongoTemplate.getCollection(collection).listIndexes().into(new ArrayList<>());
+    }
+
+    private static String signature(Document index) {
+        return signature(index.get("key", Document.class), Boolean.TRUE.equals(index.getBoolean("unique")),
+                index.get("expireAfterSeconds") instanceof Number seconds ? seconds.longValue() : null);
+    }
+
+    // key order matters and the shell stores 1 as a double, so compare a normalized form
+    private static String signature(Document keys, boolean unique, Long expireAfterSeconds) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + (entry.getValue() instanceof Number number
+                        ? String.valueOf(number.intValue())
+                        : String.valueOf(entry.getValue())))
+                .collect(Collectors.joining(",", "", (unique ? "/unique" : "")
+                        + (expireAfterSeconds != null ? "/ttl:" + expireAfterSeconds : "")));
+    }
+
+    private static IndexOptions indexOptions(DeclaredIndex declared) {
+        IndexOptions options = new IndexOptions().name(declared.name()).unique(declared.unique());
+        if (declared.expireAfterSeconds() != null) {
+            options.expireAfter(declared.expireAfterSeconds(), TimeUnit.SECONDS);
+        }
+        return options;
+    }
+
+    private static DeclaredIndex index(String collection, Document keys) {
+        return new DeclaredIndex(collection, keys, false, null);
+    }
+
+    private static DeclaredIndex unique(String collection, Document keys) {
+        return new DeclaredIndex(collection, keys, true, null);
+    }
+
+    // documents are removed once the date in the (single) key field is expireAfterSeconds old
+    private static DeclaredIndex ttl(String collection, Document keys, long expireAfterSeconds) {
+        return new DeclaredIndex(collection, keys, false, expireAfterSeconds);
+    }
+
+    record DeclaredIndex(String collection, Document keys, boolean unique, Long expireAfterSeconds) {
+
+        String id() {
+            return collection + "/" + name();
+        }
+
+        String signature() {
+            return IndexCatalogService.signature(keys, unique, expireAfterSeconds);
+        }
+
+        // the same name Mongo would generate, e.g. isPaid_1_coordinates_2dsphere
+        String name() {
+            return keys.entrySet().stream()
+                    .map(entry -> entry.getKey() + "_" + entry.getValue())
+                    .collect(Collectors.joining("_"));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.Sri_Ceylon.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of items straight to an output stream, one element at a time, so
+ * large listings never have to be held in memory as a list.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonStreamWriter {
+
+    private final JsonMapper jsonMapper;
+
+    public void writeArray(Stream<?> items, OutputStream out) {
+        try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            Iterator<?> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                generator.writePOJO(iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public void writeLines(Stream<?> items, OutputStream out) throws IOException {
+        Iterator<?> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            out.write(jsonMapper.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
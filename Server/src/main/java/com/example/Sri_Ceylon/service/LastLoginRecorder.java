@@ -0,0 +1,75 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.User;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code lastLoginAt} writes off the login path. Logins only note the time in memory;
+ * every {@code app.auth.last-login-flush-ms} the latest time per user is written in one
+ * unordered bulk of {@code $max} updates, so repeated logins of the same user collapse
+ * into a single write and an older flush can never move the value backwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginRecorder {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(String userId) {
+        pending.put(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login-flush-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>();
+        for (String userId : List.copyOf(pending.keySet())) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                batch.add(Map.entry(userId, loginAt));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (Map.Entry<String, LocalDateTime> entry : batch) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(entry.getKey())),
+                    new Update().max("lastLoginAt", entry.getValue()));
+        }
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // put them back unless a newer login arrived meanwhile; the next flush retries
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                    (newer, failed) -> newer.isAfter(failed) ? newer : failed));
+            log.warn("Could not record {} last-login times, retrying: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.config.MongoConfig;
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.Hotel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the hottest public list responses as ready-to-send JSON bytes: plain, gzip and,
+ * when brotli4j is on the classpath (the {@code brotli} Maven profile), brotli
+ * compressed. A snapshot is only served while it matches the collection's change
+ * counter; writes trigger an asynchronous rebuild and callers fall back to the regular
+ * path until it is ready. Rebuilds read from the catalog read template, paired with the
+ * counter through {@link CatalogVersionService#readAtCurrentVersion}.
+ */
+@Service
+@Slf4j
+public class ListSnapshotService {
+
+    private static final UnaryOperator<byte[]> BROTLI = brotliEncoder();
+
+    private final CatalogVersionService catalogVersionService;
+    private final MongoTemplate catalogReadTemplate;
+    private final JsonMapper jsonMapper;
+    private final Executor executor;
+    private final Map<String, Source<?>> sources;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> rebuilding = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misses = new ConcurrentHashMap<>();
+    private final Map<String, Timer> rebuildTimers = new ConcurrentHashMap<>();
+
+    public ListSnapshotService(CatalogVersionService catalogVersionService,
+                               @Qualifier(MongoConfig.CATALOG_READ_TEMPLATE) MongoTemplate catalogReadTemplate,
+                               JsonMapper jsonMapper,
+                               @Qualifier("applicationTaskExecutor") Executor executor,
+                               DestinationService destinationService,
+                               EventService eventService,
+                               HotelService hotelService,
+                               MeterRegistry meterRegistry) {
+        this.catalogVersionService = catalogVersionService;
+        this.catalogReadTemplate = catalogReadTemplate;
+        this.jsonMapper = jsonMapper;
+        this.executor = executor;
+        this.sources = Map.of(
+                CatalogVersionService.DESTINATIONS,
+                new Source<>(Destination.class, Query::new, destinationService::mapToDestinationResponse),
+                CatalogVersionService.EVENTS,
+                new Source<>(Event.class, Query::new, eventService::mapToEventResponse),
+                CatalogVersionService.HOTELS,
+                new Source<>(Hotel.class, HotelService::paidHotels, hotelService::mapToResponse));
+        for (String collection : sources.keySet()) {
+            hits.put(collection, snapshotCounter(meterRegistry, collection, "hit"));
+            misses.put(collection, snapshotCounter(meterRegistry, collection, "miss"));
+            rebuildTimers.put(collection, Timer.builder("app.snapshot.rebuild")
+                    .description("Time to reload and serialize a list snapshot")
+                    .tag("collection", collection)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Counter snapshotCounter(MeterRegistry meterRegistry, String collection, String result) {
+        return Counter.builder("app.snapshot.requests")
+                .description("List requests answered from a snapshot (hit) or the regular path (miss)")
+                .tags("collection", collection, "result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot of the collection at {@code version}, which the caller has read for its
+     * ETag; a snapshot of any other version is not served under that ETag.
+     */
+    public Optional<Snapshot> get(String collection, long version) {
+        Snapshot snapshot = snapshots.get(collection);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            hits.get(collection).increment();
+            return Optional.of(snapshot);
+        }
+        misses.get(collection).increment();
+        scheduleRebuild(collection);
+        return Optional.empty();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (sources.containsKey(event.getCollection())) {
+            snapshots.remove(event.getCollection());
+            scheduleRebuild(event.getCollection());
+        }
+    }
+
+    private void scheduleRebuild(String collection) {
+        if (rebuilding.putIfAbsent(collection, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    rebuildTimers.get(collection).record(() -> rebuild(collection));
+                } catch (RuntimeException e) {
+                    log.warn("Could not rebuild {} list snapshot: {}", collection, e.getMessage());
+                } finally {
+                    rebuilding.remove(collection);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.remove(collection);
+            throw e;
+        }
+    }
+
+    void rebuild(String collection) {
+        // the counter is read first: a write racing with the rebuild leaves the snapshot stale, never wrong
+        Snapshot snapshot = catalogVersionService.readAtCurrentVersion(collection, catalogReadTemplate,
+                (version, source) -> {
+                    byte[] json = jsonMapper.writeValueAsBytes(sources.get(collection).load(source));
+                    return new Snapshot(version, json, gzip(json), BROTLI == null ? null : BROTLI.apply(json));
+                });
+        snapshots.put(collection, snapshot);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // brotli4j is an optional dependency, so it is looked up rather than linked against
+    private static UnaryOperator<byte[]> brotliEncoder() {
+        Method compress;
+        try {
+            Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader").getMethod("ensureAvailability").invoke(null);
+            compress = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder").getMethod("compress", byte[].class);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("brotli4j is present but could not be loaded, snapshots are gzip only: {}", e.toString());
+            return null;
+        }
+        log.info("Brotli list snapshots enabled");
+        return data -> {
+            try {
+                return (byte[]) compress.invoke(null, (Object) data);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("brotli compression failed", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    // the same documents and response mapping as the service's list endpoint
+    private record Source<E>(Class<E> type, Supplier<Query> query, Function<E, ?> mapper) {
+
+        List<?> load(MongoOperations source) {
+            return source.find(query.get(), type).stream().map(mapper).toList();
+        }
+    }
+
+    public static class Snapshot {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzipJson;
+        private final byte[] brotliJson;
+
+        Snapshot(long version, byte[] json, byte[] gzipJson, byte[] brotliJson) {
+            this.version = version;
+            this.json = json;
+            this.gzipJson = gzipJson;
+            this.brotliJson = brotliJson;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzipJson() {
+            return gzipJson;
+        }
+
+        /**
+         * The brotli variant, or null when no brotli encoder is available.
+         */
+        public byte[] getBrotliJson() {
+            return brotliJson;
+        }
+    }
+}
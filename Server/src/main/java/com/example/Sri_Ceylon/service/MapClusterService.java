@@ -0,0 +1,337 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.config.MongoConfig;
+import com.example.Sri_Ceylon.dto.MapCluster;
+import com.example.Sri_Ceylon.dto.MapClusterResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Marker clusters for the map. Every layer (paid hotels, destinations, events) is held in
+ * memory as its points sorted by quadkey, the Web Mercator tile path of the point at
+ * {@link #MAX_LEVEL}. All points of a tile share a quadkey prefix and so sit next to each
+ * other, which lets a request cluster by tile in one pass without any map: points inside
+ * the bounding box are summed until the prefix changes. Clusters are tiles
+ * {@link #CELL_BITS} levels below the requested zoom, i.e. 64px cells on 256px tiles.
+ * <p>
+ * A layer is rebuilt in the background when its catalog version moves, like the list
+ * snapshots; until then requests are answered from the previous build. The first build of
+ * a layer is shared: concurrent first requests wait on the same load instead of each
+ * reading the collection. Layers are loaded from the catalog read template.
+ */
+@Service
+@Slf4j
+public class MapClusterService {
+
+    public static final List<String> LAYERS = List.of(
+            CatalogVersionService.HOTELS, CatalogVersionService.DESTINATIONS, CatalogVersionService.EVENTS);
+
+    static final int MAX_LEVEL = 24;
+    static final int CELL_BITS = 2;
+    public static final int MAX_ZOOM = MAX_LEVEL - CELL_BITS;
+
+    // Web Mercator stops here
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final CatalogVersionService catalogVersionService;
+    private final MongoTemplate catalogReadTemplate;
+    private final Executor executor;
+    private final Map<String, Layer> layers = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> rebuilding = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Layer>> firstBuilds = new ConcurrentHashMap<>();
+    private final Timer rebuildTimer;
+
+    @Value("${app.map.max-cells:20000}")
+    private long maxCells;
+
+    public MapClusterService(CatalogVersionService catalogVersionService,
+                             @Qualifier(MongoConfig.CATALOG_READ_TEMPLATE) MongoTemplate catalogReadTemplate,
+                             @Qualifier("applicationTaskExecutor") Executor executor,
+                             MeterRegistry meterRegistry) {
+        this.catalogVersionService = catalogVersionService;
+        this.catalogReadTemplate = catalogReadTemplate;
+        this.executor = executor;
+        this.rebuildTimer = Timer.builder("app.map.rebuild")
+                .description("Time to reload and sort a map cluster layer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Clusters of the given layers inside the box, which may cross the antimeridian
+     * ({@code minLng > maxLng}). Boxes that would span more than {@code app.map.max-cells}
+     * cells at this zoom are refused.
+     */
+    @Observed(name = "app.service")
+    public Clusters clusters(List<String> types, int zoom, double minLat, double minLng, double maxLat,
+                             double maxLng) {
+        // NaN fails every comparison below, so it has to be caught first
+        if (!Double.isFinite(minLat) || !Double.isFinite(minLng) || !Double.isFinite(maxLat)
+                || !Double.isFinite(maxLng)) {
+            throw new RuntimeException("Invalid bounding box");
+        }
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new RuntimeException("zoom must be between 0 and " + MAX_ZOOM);
+        }
+        if (minLat > maxLat || minLat < -90 || maxLat > 90 || Math.abs(minLng) > 180 || Math.abs(maxLng) > 180) {
+            throw new RuntimeException("Invalid bounding box");
+        }
+        for (String type : types) {
+            if (!LAYERS.contains(type)) {
+                throw new RuntimeException("Unknown layer: " + type + ". Allowed layers: " + String.join(",", LAYERS));
+            }
+        }
+        int level = zoom + CELL_BITS;
+        if (cellCount(level, minLat, minLng, maxLat, maxLng) * types.size() > maxCells) {
+            throw new RuntimeException("Bounding box too large for zoom " + zoom);
+        }
+
+        List<MapCluster> clusters = new ArrayList<>();
+        StringBuilder etag = new StringBuilder("\"map");
+        for (String type : types) {
+            Layer layer = layer(type);
+            layer.cluster(level, minLat, minLng, maxLat, maxLng, clusters);
+            etag.append('-').append(layer.version);
+        }
+        etag.append('-').append(String.join(",", types)).append('-').append(zoom)
+                .append('-').append(minLat).append(',').append(minLng).append(',').append(maxLat).append(',').append(maxLng)
+                .append('"');
+        return new Clusters(etag.toString(), new MapClusterResponse(zoom, clusters));
+    }
+
+    public record Clusters(String etag, MapClusterResponse response) {
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (layers.containsKey(event.getCollection())) {
+            scheduleRebuild(event.getCollection());
+        }
+    }
+
+    private Layer layer(String type) {
+        Layer layer = layers.get(type);
+        if (layer == null) {
+            // first request for the layer on this node; nothing older to answer with
+            return firstBuild(type);
+        }
+        if (layer.version != catalogVersionService.currentVersion(type)) {
+            scheduleRebuild(type);
+        }
+        return layer;
+    }
+
+    private Layer firstBuild(String type) {
+        CompletableFuture<Layer> build = new CompletableFuture<>();
+        CompletableFuture<Layer> running = firstBuilds.putIfAbsent(type, build);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // another first build may have finished between the caller's lookup and ours
+            Layer layer = layers.get(type);
+            build.complete(layer != null ? layer : rebuild(type));
+            return build.join();
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            // a failed build is retried by the next request
+            firstBuilds.remove(type, build);
+        }
+    }
+
+    private void scheduleRebuild(String type) {
+        if (rebuilding.putIfAbsent(type, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    rebuild(type);
+                } catch (RuntimeException e) {
+                    log.warn("Could not rebuild {} map layer: {}", type, e.getMessage());
+                } finally {
+                    rebuilding.remove(type);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.remove(type);
+            throw e;
+        }
+    }
+
+    private Layer rebuild(String type) {
+        return rebuildTimer.record(() -> {
+            // the counter is read first: a write racing with the rebuild leaves the layer stale, never wrong
+            Layer layer = catalogVersionService.readAtCurrentVersion(type, catalogReadTemplate, (version, source) -> {
+                List<Point> points = new ArrayList<>();
+                if (CatalogVersionService.HOTELS.equals(type)) {
+                    Query query = new Query(Criteria.where("isPaid").is(true).and("coordinates").ne(null));
+                    query.fields().include("name", "coordinates");
+                    load(source, type, query, "name", points);
+                } else {
+                    Query query = new Query(Criteria.where("latitude").ne(null).and("longitude").ne(null));
+                    query.fields().include("title", "latitude", "longitude");
+                    load(source, type, query, "title", points);
+                }
+                return new Layer(type, version, points);
+            });
+            layers.put(type, layer);
+            return layer;
+        });
+    }
+
+    // raw documents: only the few fields needed, and no DBRef resolution
+    private static void load(MongoOperations source, String collection, Query query, String titleField,
+                             List<Point> points) {
+        try (Stream<Document> docs = source.stream(query.cursorBatchSize(1000), Document.class, collection)) {
+            docs.forEach(doc -> addPoint(doc, titleField, points));
+        }
+    }
+
+    private static void addPoint(Document doc, String titleField, List<Point> points) {
+        Double lat;
+        Double lng;
+        if (doc.get("coordinates") instanceof Document point
+                && point.get("coordinates") instanceof List<?> xy && xy.size() == 2) {
+            lng = ((Number) xy.get(0)).doubleValue();
+            lat = ((Number) xy.get(1)).doubleValue();
+        } else {
+            lat = doc.get("latitude") instanceof Number n ? n.doubleValue() : null;
+            lng = doc.get("longitude") instanceof Number n ? n.doubleValue() : null;
+        }
+        if (lat == null || lng == null) {
+            return;
+        }
+        points.add(new Point(quadkey(lat, lng), lat, lng, String.valueOf(doc.get("_id")),
+                doc.getString(titleField)));
+    }
+
+    static long quadkey(double lat, double lng) {
+        long size = 1L << MAX_LEVEL;
+        return interleave(tile(mercatorX(lng), size), tile(mercatorY(lat), size));
+    }
+
+    private static double mercatorX(double lng) {
+        return (lng + 180) / 360;
+    }
+
+    private static double mercatorY(double lat) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static long tile(double fraction, long size) {
+        return Math.max(0, Math.min(size - 1, (long) (fraction * size)));
+    }
+
+    // y bits in odd positions, x bits in even ones: the top 2n bits are the tile at level n
+    private static long interleave(long x, long y) {
+        long code = 0;
+        for (int bit = MAX_LEVEL - 1; bit >= 0; bit--) {
+            code = (code << 2) | (((y >>> bit) & 1) << 1) | ((x >>> bit) & 1);
+        }
+        return code;
+    }
+
+    private static long cellCount(int level, double minLat, double minLng, double maxLat, double maxLng) {
+        long size = 1L << level;
+        long x1 = tile(mercatorX(minLng), size);
+        long x2 = tile(mercatorX(maxLng), size);
+        long columns = x1 <= x2 ? x2 - x1 + 1 : size - x1 + x2 + 1;
+        // y grows southwards
+        long rows = tile(mercatorY(minLat), size) - tile(mercatorY(maxLat), size) + 1;
+        return columns * rows;
+    }
+
+    private record Point(long quadkey, double lat, double lng, String id, String title) {
+    }
+
+    private static final class Layer {
+
+        final String type;
+        final long version;
+        final long[] quadkeys;
+        final double[] lat;
+        final double[] lng;
+        final String[] ids;
+        final String[] titles;
+
+        Layer(String type, long version, List<Point> points) {
+            points.sort(Comparator.comparingLong(Point::quadkey));
+            this.type = type;
+            this.version = version;
+            this.quadkeys = points.stream().mapToLong(Point::quadkey).toArray();
+            this.lat = points.stream().mapToDouble(Point::lat).toArray();
+            this.lng = points.stream().mapToDouble(Point::lng).toArray();
+            this.ids = points.stream().map(Point::id).toArray(String[]::new);
+            this.titles = points.stream().map(Point::title).toArray(String[]::new);
+        }
+
+        void cluster(int level, double minLat, double minLng, double maxLat, double maxLng, List<MapCluster> out) {
+            int shift = 2 * (MAX_LEVEL - level);
+            boolean wraps = minLng > maxLng;
+            long cell = -1;
+            int count = 0;
+            int first = -1;
+            double sumLat = 0;
+            double sumLng = 0;
+            for (int i = 0; i < quadkeys.length; i++) {
+                double pointLng = lng[i];
+                if (lat[i] < minLat || lat[i] > maxLat
+                        || (wraps ? pointLng < minLng && pointLng > maxLng : pointLng < minLng || pointLng > maxLng)) {
+                    continue;
+                }
+                long pointCell = quadkeys[i] >>> shift;
+                if (pointCell != cell) {
+                    emit(count, first, sumLat, sumLng, out);
+                    cell = pointCell;
+                    count = 0;
+                    first = i;
+                    sumLat = 0;
+                    sumLng = 0;
+                }
+                count++;
+                sumLat += lat[i];
+                sumLng += pointLng;
+            }
+            emit(count, first, sumLat, sumLng, out);
+        }
+
+        private void emit(int count, int first, double sumLat, double sumLng, List<MapCluster> out) {
+            if (count == 0) {
+                return;
+            }
+            if (count == 1) {
+                out.add(new MapCluster(type, lat[first], lng[first], 1, ids[first], titles[first]));
+            } else {
+                out.add(new MapCluster(type, sumLat / count, sumLng / count, count, null, null));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.PaymentNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+
+/**
+ * PayHere notification ingestion. The controller only verifies the signature and calls
+ * {@link #record}, one upsert keyed by order id, then answers PayHere. Hotels are activated
+ * by {@link #processDue}, which claims pending notifications one at a time (so several
+ * nodes can run it), retries failures with exponential backoff and gives up after
+ * {@code app.payments.max-attempts}. A claim whose worker died is picked up again once its
+ * lease ({@code app.payments.lease-ms}) has passed.
+ */
+@Service
+@Slf4j
+public class PaymentNotificationService {
+
+    static final String COMPLETED = "2";
+
+    private final MongoTemplate mongoTemplate;
+    private final HotelService hotelService;
+    private final PaymentOrderService paymentOrderService;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payments.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.payments.retry-base-ms:5000}")
+    private long retryBaseMs;
+
+    @Value("${app.payments.retry-max-ms:3600000}")
+    private long retryMaxMs;
+
+    @Value("${app.payments.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.payments.batch-size:50}")
+    private int batchSize;
+
+    public PaymentNotificationService(MongoTemplate mongoTemplate, HotelService hotelService,
+                                      PaymentOrderService paymentOrderService,
+                                      @Qualifier("applicationTaskExecutor") Executor executor,
+                                      MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.hotelService = hotelService;
+        this.paymentOrderService = paymentOrderService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Stores a verified notification. A completed payment replaces an earlier pending or
+     * failed status of the same order; once an order is completed, every further delivery
+     * is a duplicate and returns false without touching anything.
+     */
+    public boolean record(String orderId, String paymentId, String hotelId, String amount, String currency,
+                          String statusCode) {
+        boolean completed = COMPLETED.equals(statusCode);
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("paymentId", paymentId)
+                .set("hotelId", hotelId)
+                .set("amount", amount)
+                .set("currency", currency)
+                .set("statusCode", statusCode)
+                .set("state", completed ? PaymentNotification.State.PENDING : PaymentNotification.State.IGNORED)
+                .set("nextAttemptAt", now)
+                .setOnInsert("attempts", 0)
+                .setOnInsert("receivedAt", now);
+        try {
+            // a completed order does not match, so the upsert tries to insert its _id again and fails
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(orderId).and("statusCode").ne(COMPLETED)),
+                    update, PaymentNotification.class);
+        } catch (DuplicateKeyException e) {
+            log.info("Duplicate PayHere notification for order {} (status {}) ignored", orderId, statusCode);
+            count("duplicate");
+            return false;
+        }
+
+        if (completed) {
+            // no need to wait for the next poll; the claim keeps this safe next to it
+            executor.execute(this::processDue);
+        }
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "${app.payments.worker-initial-delay-ms:10000}",
+            fixedDelayString = "${app.payments.worker-interval-ms:5000}")
+    public void processDue() {
+        for (int i = 0; i < batchSize; i++) {
+            PaymentNotification notification = claim();
+            if (notification == null) {
+                return;
+            }
+            process(notification);
+        }
+    }
+
+    private PaymentNotification claim() {
+        LocalDateTime now = LocalDateTime.now();
+        Query due = Query.query(new Criteria().orOperator(
+                Criteria.where("state").is(PaymentNotification.State.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("state").is(PaymentNotification.State.PROCESSING).and("lockedUntil").lt(now)));
+        Update claim = new Update()
+                .set("state", PaymentNotification.State.PROCESSING)
+                .set("lockedUntil", now.plus(Duration.ofMillis(leaseMs)))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, claim, FindAndModifyOptions.options().returnNew(true),
+                PaymentNotification.class);
+    }
+
+    private void process(PaymentNotification notification) {
+        String orderId = notification.getOrderId();
+        try {
+            String hotelId = notification.getHotelId();
+            if (hotelId == null || !hotelService.markHotelPaid(hotelId)) {
+                // retrying will not make the hotel appear
+                log.error("Payment for order {} names unknown hotel {}", orderId, hotelId);
+                finish(orderId, new Update()
+                        .set("state", PaymentNotification.State.FAILED)
+                        .set("lastError", "Hotel not found: " + hotelId));
+                count("failed");
+                return;
+            }
+            finish(orderId, new Update()
+                    .set("state", PaymentNotification.State.PROCESSED)
+                    .set("processedAt", LocalDateTime.now())
+                    .unset("lastError"));
+            paymentOrderService.markActivated(orderId);
+            log.info("Hotel {} activated for PayHere order {}", hotelId, orderId);
+            count("processed");
+        } catch (RuntimeException e) {
+            int attempts = notification.getAttempts();
+            if (attempts >= maxAttempts) {
+                log.error("Giving up on PayHere order {} after {} attempts: {}", orderId, attempts, e.getMessage());
+                finish(orderId, new Update()
+                        .set("state", PaymentNotification.State.FAILED)
+                        .set("lastError", e.getMessage()));
+                count("failed");
+                return;
+            }
+            long delayMs = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 30));
+            log.warn("Activation for PayHere order {} failed (attempt {}), retrying in {}ms: {}",
+                    orderId, attempts, delayMs, e.getMessage());
+            finish(orderId, new Update()
+                    .set("state", PaymentNotification.State.PENDING)
+                    .set("nextAttemptAt", LocalDateTime.now().plus(Duration.ofMillis(delayMs)))
+                    .set("lastError", e.getMessage()));
+            count("retried");
+        }
+    }
+
+    // only while we still hold the claim; a newer delivery may have reset the document
+    private void finish(String orderId, Update update) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(orderId).and("state").is(PaymentNotification.State.PROCESSING)),
+                update.unset("lockedUntil"),
+                PaymentNotification.class);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("app.payments.notifications", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@code payment_orders} ledger. An order is created when the client asks for a
+ * PayHere hash and moves on with each verified notification; every transition is one
+ * conditional update, so a late or repeated notification cannot move an order backwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOrderService {
+
+    private final MongoTemplate mongoTemplate;
+
+    // how long after creation, or after payment, the sweep first looks at an order
+    @Value("${app.payments.reconcile-after-ms:900000}")
+    private long reconcileAfterMs;
+
+    // what a hotel listing costs; PayHere wants the amount with two decimals
+    @Value("${app.payments.listing-fee:5000.00}")
+    private BigDecimal listingFee;
+
+    @Value("${app.payments.currency:LKR}")
+    private String currency;
+
+    /**
+     * Opens the order that pays for a hotel's listing. Only the hotel's owner (or an admin)
+     * may, and the amount is always the listing fee, whatever the client thinks it is.
+     */
+    public PaymentOrder createListingOrder(String orderId, String hotelId, String userId, boolean isAdmin) {
+        if (hotelId == null) {
+            throw new RuntimeException("Error: hotelId is required");
+        }
+        Query hotelQuery = Query.query(Criteria.where("_id").is(hotelId));
+        hotelQuery.fields().include("ownerId", "createdBy", "isPaid");
+        Hotel hotel = mongoTemplate.findOne(hotelQuery, Hotel.class);
+        if (hotel == null) {
+            throw new RuntimeException("Hotel not found with id: " + hotelId);
+        }
+        // ownerId may not be backfilled yet on older hotels
+        String ownerId = hotel.getOwnerId() != null ? hotel.getOwnerId()
+                : hotel.getCreatedBy() != null ? hotel.getCreatedBy().getId() : null;
+        if (!isAdmin && (userId == null || !userId.equals(ownerId))) {
+            throw new AccessDeniedException("Only the owner of the hotel can pay for its listing");
+        }
+        if (Boolean.TRUE.equals(hotel.getIsPaid())) {
+            throw new RuntimeException("Error: Hotel " + hotelId + " is already paid for");
+        }
+        return create(orderId, hotelId, userId, listingFee.setScale(2, RoundingMode.HALF_UP).toPlainString(),
+                currency);
+    }
+
+    public PaymentOrder create(String orderId, String hotelId, String userId, String amount, String currency) {
+        if (orderId == null || hotelId == null) {
+            throw new RuntimeException("Error: orderId and hotelId are required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        PaymentOrder order = new PaymentOrder(orderId, hotelId, userId, amount, currency, PaymentStatus.PENDING,
+                null, null, now, now, null, null, now.plus(Duration.ofMillis(reconcileAfterMs)));
+        try {
+            return mongoTemplate.insert(order);
+        } catch (DuplicateKeyException e) {
+            // the client asking again for the same order gets the same answer; anything else is a reused id
+            PaymentOrder existing = findOrder(orderId);
+            if (existing != null && existing.getStatus() == PaymentStatus.PENDING
+                    && existing.matches(amount, currency)) {
+                return existing;
+            }
+            throw new RuntimeException("Error: Order " + orderId + " already exists");
+        }
+    }
+
+    public PaymentOrder findOrder(String orderId) {
+        return orderId == null ? null : mongoTemplate.findById(orderId, PaymentOrder.class);
+    }
+
+    /** Most recently updated orders, optionally of one status and/or hotel. */
+    public List<PaymentOrder> findOrders(PaymentStatus status, String hotelId, int limit) {
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (hotelId != null) {
+            query.addCriteria(Criteria.where("hotelId").is(hotelId));
+        }
+        return mongoTemplate.find(query.with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(limit),
+                PaymentOrder.class);
+    }
+
+    /**
+     * Applies a verified PayHere {@code status_code} to the order. Returns false when the
+     * order is unknown or already past the state the notification would move it from.
+     */
+    public boolean applyNotification(String orderId, String statusCode, String paymentId) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("statusCode", statusCode)
+                .set("updatedAt", now);
+        if (paymentId != null) {
+            update.set("paymentId", paymentId);
+        }
+        List<PaymentStatus> from;
+        switch (String.valueOf(statusCode)) {
+            case "2" -> {
+                // a success arriving after we gave up on the order still counts
+                from = List.of(PaymentStatus.PENDING, PaymentStatus.CANCELLED, PaymentStatus.FAILED,
+                        PaymentStatus.EXPIRED);
+                update.set("status", PaymentStatus.PAID)
+                        .set("paidAt", now)
+                        .set("nextCheckAt", now.plus(Duration.ofMillis(reconcileAfterMs)));
+            }
+            case "0" -> from = List.of(PaymentStatus.PENDING);
+            case "-1" -> {
+                from = List.of(PaymentStatus.PENDING);
+                update.set("status", PaymentStatus.CANCELLED).unset("nextCheckAt");
+            }
+            case "-2" -> {
+                from = List.of(PaymentStatus.PENDING);
+                update.set("status", PaymentStatus.FAILED).unset("nextCheckAt");
+            }
+            case "-3" -> {
+                from = List.of(PaymentStatus.PAID);
+                update.set("status", PaymentStatus.CHARGEDBACK).unset("nextCheckAt");
+            }
+            default -> {
+                log.warn("Unknown PayHere status {} for order {}", statusCode, orderId);
+                return false;
+            }
+        }
+        boolean applied = transition(orderId, from, update);
+        if (applied && "-3".equals(statusCode)) {
+            log.warn("PayHere order {} was charged back", orderId);
+        }
+        return applied;
+    }
+
+    /** Called once the hotel of a paid order is active; the order needs no more checks. */
+    public void markActivated(String orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        transition(orderId, List.of(PaymentStatus.PAID), new Update()
+                .set("activatedAt", now)
+                .set("updatedAt", now)
+                .unset("nextCheckAt"));
+    }
+
+    /** Gives up on an order that never got an outcome from PayHere. */
+    public boolean expire(String orderId) {
+        return transition(orderId, List.of(PaymentStatus.PENDING), new Update()
+                .set("status", PaymentStatus.EXPIRED)
+                .set("updatedAt", LocalDateTime.now())
+                .unset("nextCheckAt"));
+    }
+
+    /** Leaves the order as it is and has the sweep look at it again after {@code delay}. */
+    public void recheckLater(String orderId, Duration delay) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(orderId)),
+                new Update().set("nextCheckAt", LocalDateTime.now().plus(delay)), PaymentOrder.class);
+    }
+
+    public void clearCheck(String orderId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(orderId)),
+                new Update().unset("nextCheckAt"), PaymentOrder.class);
+    }
+
+    private boolean transition(String orderId, List<PaymentStatus> from, Update update) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(orderId).and("status").in(from)),
+                update, PaymentOrder.class).getModifiedCount() > 0;
+    }
+}
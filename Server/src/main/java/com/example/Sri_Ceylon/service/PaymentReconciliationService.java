@@ -0,0 +1,157 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.PaymentNotification;
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.model.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodic sweep over orders whose {@code nextCheckAt} has passed, oldest first, in
+ * batches of {@code app.payments.reconcile-batch-size}. For each order it looks at what
+ * actually happened: a completed notification the ledger missed, a hotel that is already
+ * active, a paid order whose activation is missing or gave up, or a pending order too old
+ * to still be paid. Orders that still need waiting are pushed back by
+ * {@code app.payments.reconcile-recheck-ms}. A paid order whose notification was handled
+ * without activating the hotel is logged, counted as {@code activation_anomaly} and no
+ * longer checked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentOrderService paymentOrderService;
+    private final PaymentNotificationService paymentNotificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payments.reconcile-batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.payments.reconcile-max-batches:10}")
+    private int maxBatches;
+
+    @Value("${app.payments.reconcile-recheck-ms:900000}")
+    private long recheckMs;
+
+    @Value("${app.payments.order-expiry-ms:86400000}")
+    private long orderExpiryMs;
+
+    @Scheduled(initialDelayString = "${app.payments.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.payments.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (int batch = 0; batch < maxBatches; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentOrder> orders = mongoTemplate.find(
+                    Query.query(Criteria.where("nextCheckAt").lte(now))
+                            .with(Sort.by("nextCheckAt"))
+                            .limit(batchSize),
+                    PaymentOrder.class);
+            if (orders.isEmpty()) {
+                return;
+            }
+            reconcile(orders, now);
+            if (orders.size() < batchSize) {
+                return;
+            }
+        }
+        log.warn("Payment reconciliation stopped after {} batches, the rest waits for the next run", maxBatches);
+    }
+
+    private void reconcile(List<PaymentOrder> orders, LocalDateTime now) {
+        // one read each for the notifications and hotels of the whole batch
+        List<String> orderIds = orders.stream().map(PaymentOrder::getOrderId).toList();
+        Map<String, PaymentNotification> notifications = mongoTemplate.find(
+                        Query.query(Criteria.where("_id").in(orderIds)), PaymentNotification.class).stream()
+                .collect(Collectors.toMap(PaymentNotification::getOrderId, Function.identity()));
+        List<String> hotelIds = orders.stream().map(PaymentOrder::getHotelId).filter(Objects::nonNull).toList();
+        Query paidHotels = Query.query(Criteria.where("_id").in(hotelIds).and("isPaid").is(true));
+        paidHotels.fields().include("_id");
+        Set<String> activeHotels = new HashSet<>();
+        mongoTemplate.find(paidHotels, Hotel.class).forEach(hotel -> activeHotels.add(hotel.getId()));
+
+        for (PaymentOrder order : orders) {
+            try {
+                String outcome = reconcile(order, notifications.get(order.getOrderId()),
+                        activeHotels.contains(order.getHotelId()), now);
+                meterRegistry.counter("app.payments.reconcile", "outcome", outcome).increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not reconcile payment order {}: {}", order.getOrderId(), e.getMessage());
+                paymentOrderService.recheckLater(order.getOrderId(), Duration.ofMillis(recheckMs));
+            }
+        }
+    }
+
+    private String reconcile(PaymentOrder order, PaymentNotification notification, boolean hotelActive,
+                             LocalDateTime now) {
+        String orderId = order.getOrderId();
+        if (order.getStatus() == PaymentStatus.PENDING) {
+            if (notification != null && PaymentNotificationService.COMPLETED.equals(notification.getStatusCode())) {
+                paymentOrderService.applyNotification(orderId, notification.getStatusCode(),
+                        notification.getPaymentId());
+                return "paid";
+            }
+            if (order.getCreatedAt().plus(Duration.ofMillis(orderExpiryMs)).isBefore(now)) {
+                paymentOrderService.expire(orderId);
+                return "expired";
+            }
+            log.info("Payment order {} for hotel {} still has no outcome from PayHere", orderId, order.getHotelId());
+            paymentOrderService.recheckLater(orderId, Duration.ofMillis(recheckMs));
+            return "pending";
+        }
+
+        if (order.getStatus() == PaymentStatus.PAID && order.getActivatedAt() == null) {
+            if (hotelActive) {
+                paymentOrderService.markActivated(orderId);
+                return "activated";
+            }
+            if (notification == null) {
+                // the ledger saw the payment but the activation was never queued
+                paymentNotificationService.record(orderId, order.getPaymentId(), order.getHotelId(),
+                        order.getAmount(), order.getCurrency(), PaymentNotificationService.COMPLETED);
+                paymentOrderService.recheckLater(orderId, Duration.ofMillis(recheckMs));
+                return "requeued";
+            }
+            if (notification.getState() == PaymentNotification.State.FAILED) {
+                log.error("Hotel {} was paid for with order {} but activation failed: {}",
+                        order.getHotelId(), orderId, notification.getLastError());
+                paymentOrderService.recheckLater(orderId, Duration.ofMillis(recheckMs));
+                return "activation_failed";
+            }
+            if (notification.getState() == PaymentNotification.State.PROCESSED
+                    || notification.getState() == PaymentNotification.State.IGNORED) {
+                // the worker is finished with it, so waiting longer cannot change anything
+                log.error("Hotel {} was paid for with order {} but is not active although its notification is {}",
+                        order.getHotelId(), orderId, notification.getState());
+                paymentOrderService.clearCheck(orderId);
+                return "activation_anomaly";
+            }
+            paymentOrderService.recheckLater(orderId, Duration.ofMillis(recheckMs));
+            return "activating";
+        }
+
+        // settled in the meantime
+        paymentOrderService.clearCheck(orderId);
+        return "settled";
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.DestinationResponse;
+import com.example.Sri_Ceylon.dto.DestinationReviewResponse;
+import com.example.Sri_Ceylon.dto.EventResponse;
+import com.example.Sri_Ceylon.dto.EventReviewResponse;
+import com.example.Sri_Ceylon.dto.HotelResponse;
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.DestinationReview;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.EventReview;
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.User;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveDestinationRepository;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveDestinationReviewRepository;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveEventRepository;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveEventReviewRepository;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveHotelRepository;
+import com.example.Sri_Ceylon.repository.reactive.ReactiveUserRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of the public catalog. References come back from Mongo as id-only
+ * stubs; the authors of each batch of results are loaded with a single query and the
+ * existing response mappers are reused, so responses match the MVC endpoints.
+ */
+@Service
+@ConditionalOnBooleanProperty("app.reactive.enabled")
+public class ReactiveCatalogService {
+
+    private static final int USER_LOOKUP_BATCH_SIZE = 256;
+
+    @Autowired
+    private ReactiveDestinationRepository destinationRepository;
+
+    @Autowired
+    private ReactiveEventRepository eventRepository;
+
+    @Autowired
+    private ReactiveHotelRepository hotelRepository;
+
+    @Autowired
+    private ReactiveDestinationReviewRepository destinationReviewRepository;
+
+    @Autowired
+    private ReactiveEventReviewRepository eventReviewRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private DestinationService destinationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private DestinationReviewService destinationReviewService;
+
+    @Autowired
+    private EventReviewService eventReviewService;
+
+    public Flux<DestinationResponse> getAllDestinations() {
+        return withUsers(destinationRepository.findAll(), Destination::getCreatedBy, Destination::setCreatedBy)
+                .map(destinationService::mapToDestinationResponse);
+    }
+
+    public Mono<DestinationResponse> getDestinationById(String destinationId) {
+        return withUsers(destinationRepository.findById(destinationId).flux(), Destination::getCreatedBy, Destination::setCreatedBy)
+                .next()
+                .map(destinationService::mapToDestinationResponse)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Destination not found with id: " + destinationId)));
+    }
+
+    public Flux<EventResponse> getAllEvents() {
+        return withUsers(eventRepository.findAll(), Event::getCreatedBy, Event::setCreatedBy)
+                .map(eventService::mapToEventResponse);
+    }
+
+    public Mono<EventResponse> getEventById(String eventId) {
+        Flux<Event> event = eventRepository.findById(eventId)
+                .switchIfEmpty(reactiveMongoTemplate.findById(eventId, Event.class, EventArchiveService.EVENTS_ARCHIVE_COLLECTION))
+                .flux();
+        return withUsers(event, Event::getCreatedBy, Event::setCreatedBy)
+                .next()
+                .map(eventService::mapToEventResponse)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Event not found with id: " + eventId)));
+    }
+
+    public Flux<HotelResponse> getAllHotels() {
+        return withUsers(hotelRepository.findByIsPaidTrue(), Hotel::getCreatedBy, Hotel::setCreatedBy)
+                .map(hotelService::mapToResponse);
+    }
+
+    public Mono<HotelResponse> getHotelById(String hotelId) {
+        return withUsers(hotelRepository.findById(hotelId).flux(), Hotel::getCreatedBy, Hotel::setCreatedBy)
+                .next()
+                .map(hotelService::mapToResponse)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Hotel not found with id: " + hotelId)));
+    }
+
+    public Flux<HotelResponse> getNearbyHotels(Double latitude, Double longitude, double radiusKm) {
+        Point point = new Point(longitude, latitude);
+        Distance distance = new Distance(radiusKm, Metrics.KILOMETERS);
+        return withUsers(hotelRepository.findByIsPaidTrueAndCoordinatesNear(point, distance), Hotel::getCreatedBy, Hotel::setCreatedBy)
+                .map(hotelService::mapToResponse);
+    }
+
+    public Flux<DestinationReviewResponse> getReviewsByDestinationId(String destinationId) {
+        return destinationRepository.findById(destinationId)
+                .flatMapMany(destination -> withUsers(destinationReviewRepository.findByDestinationId(destinationId),
+                        DestinationReview::getUser, DestinationReview::setUser)
+                        .map(review -> {
+                            review.setDestination(destination);
+                            return destinationReviewService.mapToResponse(review);
+                        }));
+    }
+
+    public Flux<EventReviewResponse> getReviewsByEventId(String eventId) {
+        Flux<EventReview> reviews = eventReviewRepository.findByEventId(eventId)
+                .switchIfEmpty(Flux.defer(() -> ObjectId.isValid(eventId)
+                        ? reactiveMongoTemplate.find(new Query(Criteria.where("event.$id").is(new ObjectId(eventId))),
+                                EventReview.class, EventArchiveService.EVENT_REVIEWS_ARCHIVE_COLLECTION)
+                        : Flux.empty()));
+        return eventRepository.findById(eventId)
+                .switchIfEmpty(reactiveMongoTemplate.findById(eventId, Event.class, EventArchiveService.EVENTS_ARCHIVE_COLLECTION))
+                .flatMapMany(event -> withUsers(reviews, EventReview::getUser, EventReview::setUser)
+                        .map(review -> {
+                            review.setEvent(event);
+                            return eventReviewService.mapToResponse(review);
+                        }));
+    }
+
+    /**
+     * Replaces the id-only user stubs on each entity with the stored user, looking up a
+     * whole batch of results at a time.
+     */
+    private <E> Flux<E> withUsers(Flux<E> entities, Function<E, User> getUser, BiConsumer<E, User> setUser) {
+        return entities.buffer(USER_LOOKUP_BATCH_SIZE).concatMap(batch -> {
+            Set<String> ids = batch.stream()
+                    .map(getUser)
+                    .filter(Objects::nonNull)
+                    .map(User::getId)
+                    .collect(Collectors.toSet());
+            if (ids.isEmpty()) {
+                return Flux.fromIterable(batch);
+            }
+            return userRepository.findSummariesByIdIn(ids)
+                    .collectMap(User::getId)
+                    .flatMapIterable(users -> {
+                        for (E entity : batch) {
+                            User stub = getUser.apply(entity);
+                            if (stub != null) {
+                                setUser.accept(entity, users.get(stub.getId()));
+                            }
+                        }
+                        return batch;
+                    });
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.exception.InvalidRefreshTokenException;
+import com.example.Sri_Ceylon.model.RefreshToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens with rotation. Each exchange marks the presented token used and
+ * issues a successor whose lifetime slides forward by {@code jwt.refresh-expiration}, up
+ * to {@code jwt.refresh-max-session} after the original login. Presenting a token that
+ * was already exchanged revokes its whole family, since one of the two holders is not
+ * the user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.refresh-max-session:7776000000}")
+    private long maxSessionMs;
+
+    /**
+     * Starts a new token family after a password login and returns the raw token.
+     */
+    public String issue(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return store(userId, UUID.randomUUID().toString(), now, now);
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     *
+     * @throws InvalidRefreshTokenException if the token is unknown, expired or already used
+     */
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken current = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(tokenHash)
+                        .and("usedAt").is(null)
+                        .and("expiresAt").gt(now)),
+                Update.update("usedAt", now),
+                RefreshToken.class);
+
+        if (current == null) {
+            RefreshToken reused = mongoTemplate.findOne(
+                    Query.query(Criteria.where("tokenHash").is(tokenHash).and("usedAt").ne(null)),
+                    RefreshToken.class);
+            if (reused != null) {
+                log.warn("Refresh token reused for user {}, revoking its session", reused.getUserId());
+                revokeFamily(reused.getFamilyId());
+            }
+            throw new InvalidRefreshTokenException();
+        }
+
+        LocalDateTime sessionEnd = current.getSessionStartedAt().plus(Duration.ofMillis(maxSessionMs));
+        if (!now.isBefore(sessionEnd)) {
+            throw new InvalidRefreshTokenException();
+        }
+        String next = store(current.getUserId(), current.getFamilyId(), current.getSessionStartedAt(), now);
+        return new Rotation(current.getUserId(), next);
+    }
+
+    /**
+     * Ends the session the token belongs to (logout). Unknown tokens are ignored.
+     */
+    public void revoke(String rawToken) {
+        RefreshToken token = mongoTemplate.findOne(
+                Query.query(Criteria.where("tokenHash").is(hash(rawToken))), RefreshToken.class);
+        if (token != null) {
+            revokeFamily(token.getFamilyId());
+        }
+    }
+
+    /**
+     * Ends every session of a user, e.g. after a password change.
+     */
+    public void revokeAll(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), RefreshToken.class);
+    }
+
+    private void revokeFamily(String familyId) {
+        mongoTemplate.remove(Query.query(Criteria.where("familyId").is(familyId)), RefreshToken.class);
+    }
+
+    private String store(String userId, String familyId, LocalDateTime sessionStartedAt, LocalDateTime now) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(refreshExpirationMs));
+        LocalDateTime sessionEnd = sessionStartedAt.plus(Duration.ofMillis(maxSessionMs));
+        if (expiresAt.isAfter(sessionEnd)) {
+            expiresAt = sessionEnd;
+        }
+        mongoTemplate.insert(new RefreshToken(null, hash(rawToken), userId, familyId, sessionStartedAt, expiresAt, null));
+        return rawToken;
+    }
+
+    // the token is 256 random bits, so a plain digest is enough to make a leaked collection useless
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(String userId, String refreshToken) {
+    }
+}
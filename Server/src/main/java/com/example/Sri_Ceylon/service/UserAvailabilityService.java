@@ -0,0 +1,122 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.AvailabilityRequest;
+import com.example.Sri_Ceylon.dto.AvailabilityResponse;
+import com.example.Sri_Ceylon.exception.DuplicateFieldException;
+import com.example.Sri_Ceylon.model.User;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Username and email uniqueness. Writes rely on the unique indexes and only come here
+ * after a duplicate-key error to find out which field collided; the signup form checks
+ * candidates ahead of time through {@link #check}. Until {@link IndexCatalogService} has
+ * verified those indexes, {@link #checkBeforeWrite} looks for duplicates up front.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserAvailabilityService {
+
+    private static final String USERNAME_TAKEN = "Username is already taken!";
+    private static final String EMAIL_TAKEN = "Email is already in use!";
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexCatalogService indexCatalogService;
+
+    /**
+     * Availability of every candidate username and email, in one indexed query.
+     */
+    @Observed(name = "app.service")
+    public AvailabilityResponse check(AvailabilityRequest request) {
+        List<String> usernames = request.getUsernames() == null ? List.of() : request.getUsernames();
+        List<String> emails = request.getEmails() == null ? List.of() : request.getEmails();
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (User user : findConflicts(null, usernames, emails)) {
+            takenUsernames.add(user.getUsername());
+            takenEmails.add(user.getEmail());
+        }
+
+        Map<String, Boolean> usernameAvailability = new LinkedHashMap<>();
+        usernames.forEach(username -> usernameAvailability.put(username, !takenUsernames.contains(username)));
+        Map<String, Boolean> emailAvailability = new LinkedHashMap<>();
+        emails.forEach(email -> emailAvailability.put(email, !takenEmails.contains(email)));
+        return new AvailabilityResponse(usernameAvailability, emailAvailability);
+    }
+
+    /**
+     * Builds the field errors for a duplicate-key failure on a user write. If the other
+     * document is gone by now the error is still reported, just without a field.
+     */
+    public DuplicateFieldException conflict(String userId, String username, String email) {
+        Map<String, String> errors = fieldErrors(userId, username, email);
+        if (errors.isEmpty()) {
+            errors.put("message", "Username or email is already in use!");
+        }
+        return new DuplicateFieldException(errors);
+    }
+
+    /**
+     * Fails a user write whose username or email is taken, as long as the unique indexes
+     * are not known to be in place (still building, failed, or missing). Once they are,
+     * this costs nothing and the write itself is the check.
+     */
+    public void checkBeforeWrite(String userId, String username, String email) {
+        if (indexCatalogService.uniqueIndexesVerified("users")) {
+            return;
+        }
+        Map<String, String> errors = fieldErrors(userId, username, email);
+        if (!errors.isEmpty()) {
+            throw new DuplicateFieldException(errors);
+        }
+    }
+
+    private Map<String, String> fieldErrors(String userId, String username, String email) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (User other : findConflicts(userId, listOf(username), listOf(email))) {
+            if (username != null && username.equals(other.getUsername())) {
+                errors.put("username", USERNAME_TAKEN);
+            }
+            if (email != null && email.equals(other.getEmail())) {
+                errors.put("email", EMAIL_TAKEN);
+            }
+        }
+        return errors;
+    }
+
+    private List<User> findConflicts(String excludeUserId, List<String> usernames, List<String> emails) {
+        List<Criteria> anyOf = new ArrayList<>();
+        if (!usernames.isEmpty()) {
+            anyOf.add(Criteria.where("username").in(usernames));
+        }
+        if (!emails.isEmpty()) {
+            anyOf.add(Criteria.where("email").in(emails));
+        }
+        if (anyOf.isEmpty()) {
+            return List.of();
+        }
+        Criteria criteria = new Criteria().orOperator(anyOf);
+        if (excludeUserId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").ne(excludeUserId));
+        }
+        Query query = Query.query(criteria);
+        query.fields().include("username", "email");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    private static List<String> listOf(String value) {
+        return value == null ? List.of() : List.of(value);
+    }
+}
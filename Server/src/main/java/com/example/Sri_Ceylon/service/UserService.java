@@ -5,22 +5,33 @@ import com.example.Sri_Ceylon.dto.UserResponse;
 import com.example.Sri_Ceylon.dto.UserProfileResponse;
 import com.example.Sri_Ceylon.dto.DestinationResponse;
 import com.example.Sri_Ceylon.dto.EventResponse;
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.DestinationReview;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.EventReview;
+import com.example.Sri_Ceylon.model.Hotel;
 import com.example.Sri_Ceylon.model.Role;
 import com.example.Sri_Ceylon.model.User;
 import com.example.Sri_Ceylon.repository.UserRepository;
 import com.example.Sri_Ceylon.repository.DestinationRepository;
 import com.example.Sri_Ceylon.repository.EventRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.bson.types.ObjectId;
 import org.bson.Document;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -29,29 +40,64 @@ import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.aggregation.LookupOperation;
 import org.springframework.data.mongodb.core.aggregation.MatchOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+
+    private static final int STREAM_CURSOR_BATCH_SIZE = 500;
+
+    public static final Map<String, List<String>> RESPONSE_FIELDS = Map.ofEntries(
+            Map.entry("id", List.of("id")),
+            Map.entry("username", List.of("username")),
+            Map.entry("email", List.of("email")),
+            Map.entry("firstName", List.of("firstName")),
+            Map.entry("lastName", List.of("lastName")),
+            Map.entry("phoneNumber", List.of("phoneNumber")),
+            Map.entry("profileImageUrl", List.of("profileImageUrl")),
+            Map.entry("roles", List.of("roles")),
+            Map.entry("enabled", List.of("enabled")),
+            Map.entry("createdAt", List.of("createdAt")),
+            Map.entry("lastLoginAt", List.of("lastLoginAt")),
+            Map.entry("favoriteDestinationIds", List.of("favoriteDestinationIds")),
+            Map.entry("favoriteEventIds", List.of("favoriteEventIds")));
     
     private final UserRepository userRepository;
     private final DestinationRepository destinationRepository;
     private final EventRepository eventRepository;
     private final PasswordEncoder passwordEncoder;
     private final MongoTemplate mongoTemplate;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final RefreshTokenService refreshTokenService;
+    private final UserAvailabilityService userAvailabilityService;
+    private final CatalogVersionService catalogVersionService;
     
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToUserResponse)
-                .collect(Collectors.toList());
+    @Observed(name = "app.service")
+    public void streamAllUsers(OutputStream out) {
+        Query query = new Query().cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        query.fields().exclude("password", "accountNonLocked", "updatedAt");
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            jsonStreamWriter.writeArray(users.map(this::convertToUserResponse), out);
+        }
     }
     
-    public UserResponse getUserById(String id) {
-        User user = userRepository.findById(id)
+    @Observed(name = "app.service")
+    public List<Object> getAllUsers(FieldSelection selection) {
+        return mongoTemplate.find(selection.applyTo(new Query()), User.class).stream()
+                .map(user -> selection.filter(convertToUserResponse(user)))
+                .collect(Collectors.toList());
+    }
+
+    @Observed(name = "app.service")
+    public Object getUserById(String id, FieldSelection selection) {
+        User user = selection.findById(id, userRepository::findById, mongoTemplate, User.class)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
-        return convertToUserResponse(user);
+        return selection.filter(convertToUserResponse(user));
     }
     
+    @Observed(name = "app.service")
     public UserResponse getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -59,21 +105,21 @@ public class UserService {
     }
     
     @Transactional
+    @Observed(name = "app.service")
     public UserResponse updateUser(String id, UpdateUserRequest updateRequest) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        boolean usernameChanged = updateRequest.getUsername() != null
+                && !updateRequest.getUsername().equals(user.getUsername());
+        boolean profileImageChanged = updateRequest.getProfileImageUrl() != null
+                && !Objects.equals(updateRequest.getProfileImageUrl(), user.getProfileImageUrl());
         
-        if (updateRequest.getUsername() != null && !updateRequest.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(updateRequest.getUsername())) {
-                throw new RuntimeException("Username is already taken!");
-            }
+        // uniqueness is left to the indexes once they are verified, see the save below
+        if (updateRequest.getUsername() != null) {
             user.setUsername(updateRequest.getUsername());
         }
         
-        if (updateRequest.getEmail() != null && !updateRequest.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(updateRequest.getEmail())) {
-                throw new RuntimeException("Email is already in use!");
-            }
+        if (updateRequest.getEmail() != null) {
             user.setEmail(updateRequest.getEmail());
         }
         
@@ -94,12 +140,43 @@ public class UserService {
         }
         
         user.setUpdatedAt(LocalDateTime.now());
-        User updatedUser = userRepository.save(user);
+        userAvailabilityService.checkBeforeWrite(id, updateRequest.getUsername(), updateRequest.getEmail());
+        User updatedUser;
+        try {
+            updatedUser = userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw userAvailabilityService.conflict(id, updateRequest.getUsername(), updateRequest.getEmail());
+        }
+        if (usernameChanged || profileImageChanged) {
+            invalidateAuthoredContent(id, usernameChanged);
+        }
         
         return convertToUserResponse(updatedUser);
     }
+
+    // review responses show their author's username and picture, catalog entries their creator's
+    // username: move the document versions and list counters so no ETag or snapshot keeps the old ones
+    private void invalidateAuthoredContent(String userId, boolean usernameChanged) {
+        Update touch = new Update().inc("version", 1L);
+        Query byAuthor = new Query(Criteria.where("user.id").is(userId));
+        mongoTemplate.updateMulti(byAuthor, touch, DestinationReview.class);
+        mongoTemplate.updateMulti(byAuthor, touch, EventReview.class);
+        catalogVersionService.bump(CatalogVersionService.DESTINATION_REVIEWS);
+        catalogVersionService.bump(CatalogVersionService.EVENT_REVIEWS);
+        if (!usernameChanged) {
+            return;
+        }
+        Query byCreator = new Query(Criteria.where("createdBy.id").is(userId));
+        mongoTemplate.updateMulti(byCreator, touch, Destination.class);
+        mongoTemplate.updateMulti(byCreator, touch, Event.class);
+        mongoTemplate.updateMulti(byCreator, touch, Hotel.class);
+        catalogVersionService.bump(CatalogVersionService.DESTINATIONS);
+        catalogVersionService.bump(CatalogVersionService.EVENTS);
+        catalogVersionService.bump(CatalogVersionService.HOTELS);
+    }
     
     @Transactional
+    @Observed(name = "app.service")
     public void deleteUser(String id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -107,6 +184,7 @@ public class UserService {
     }
     
     @Transactional
+    @Observed(name = "app.service")
     public UserResponse toggleUserStatus(String id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -117,6 +195,7 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
+    @Observed(name = "app.service")
     public Set<String> getFavoriteDestinations(String id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -126,6 +205,7 @@ public class UserService {
     }
 
     @Transactional
+    @Observed(name = "app.service")
     public Set<String> addFavoriteDestination(String id, String destinationId) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -138,6 +218,7 @@ public class UserService {
     }
 
     @Transactional
+    @Observed(name = "app.service")
     public Set<String> removeFavoriteDestination(String id, String destinationId) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -150,6 +231,7 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
+    @Observed(name = "app.service")
     public Set<String> getFavoriteEvents(String id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -159,6 +241,7 @@ public class UserService {
     }
 
     @Transactional
+    @Observed(name = "app.service")
     public Set<String> addFavoriteEvent(String id, String eventId) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -171,6 +254,7 @@ public class UserService {
     }
 
     @Transactional
+    @Observed(name = "app.service")
     public Set<String> removeFavoriteEvent(String id, String eventId) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -183,6 +267,7 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
+    @Observed(name = "app.service")
     public UserProfileResponse getUserProfile(String id) {
         // Use aggregation to fetch the user together with populated favorite destinations and events
         MatchOperation matchUser = Aggregation.match(Criteria.where("_id").is(new ObjectId(id)));
@@ -196,8 +281,14 @@ public class UserService {
                 .localField("favoriteEventIds")
                 .foreignField("_id")
                 .as("favoriteEvents");
+        // favorites stay valid after their event has been archived
+        LookupOperation lookupArchivedEvents = LookupOperation.newLookup()
+                .from(EventArchiveService.EVENTS_ARCHIVE_COLLECTION)
+                .localField("favoriteEventIds")
+                .foreignField("_id")
+                .as("archivedFavoriteEvents");
 
-        Aggregation agg = Aggregation.newAggregation(matchUser, lookupDest, lookupEvents);
+        Aggregation agg = Aggregation.newAggregation(matchUser, lookupDest, lookupEvents, lookupArchivedEvents);
         AggregationResults<Document> results = mongoTemplate.aggregate(agg, "users", Document.class);
         Document doc = results.getUniqueMappedResult();
         if (doc == null) {
@@ -213,64 +304,17 @@ public class UserService {
         List<Document> destDocs = (List<Document>) doc.get("favoriteDestinations");
         if (destDocs != null) {
             for (Document d : destDocs) {
-                DestinationResponse r = new DestinationResponse();
-                Object idObj = d.get("_id");
-                if (idObj instanceof ObjectId) {
-                    r.setId(((ObjectId) idObj).toHexString());
-                } else if (idObj != null) {
-                    r.setId(idObj.toString());
-                }
-                r.setTitle(d.getString("title"));
-                r.setDescription(d.getString("description"));
-                r.setImageUrls((List<String>) d.get("imageUrls"));
-                r.setBestSeasonToVisit(d.getString("bestSeasonToVisit"));
-                r.setLocation(d.getString("location"));
-                Object latObj = d.get("latitude");
-                if (latObj instanceof Number) r.setLatitude(((Number) latObj).doubleValue());
-                Object lonObj = d.get("longitude");
-                if (lonObj instanceof Number) r.setLongitude(((Number) lonObj).doubleValue());
-                Object tsObj = d.get("timestamp");
-                if (tsObj instanceof java.util.Date) {
-                    r.setTimestamp(((java.util.Date) tsObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
-                }
-                // createdBy is a DBRef; aggregation may include it as a Document or DBRef; skip for now
-                destResponses.add(r);
+                destResponses.add(toFavoriteDestination(d));
             }
         }
 
         List<EventResponse> eventResponses = new ArrayList<>();
-        List<Document> eventDocs = (List<Document>) doc.get("favoriteEvents");
-        if (eventDocs != null) {
-            for (Document e : eventDocs) {
-                EventResponse r = new EventResponse();
-                Object eidObj = e.get("_id");
-                if (eidObj instanceof ObjectId) {
-                    r.setId(((ObjectId) eidObj).toHexString());
-                } else if (eidObj != null) {
-                    r.setId(eidObj.toString());
-                }
-                r.setTitle(e.getString("title"));
-                r.setDescription(e.getString("description"));
-                r.setImageUrls((List<String>) e.get("imageUrls"));
-                // start/end may be stored as Date; handle carefully
-                Object startObj = e.get("start");
-                if (startObj instanceof java.util.Date) {
-                    r.setStart(((java.util.Date) startObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
+        for (String field : List.of("favoriteEvents", "archivedFavoriteEvents")) {
+            List<Document> eventDocs = (List<Document>) doc.get(field);
+            if (eventDocs != null) {
+                for (Document e : eventDocs) {
+                    eventResponses.add(toFavoriteEvent(e));
                 }
-                Object endObj = e.get("end");
-                if (endObj instanceof java.util.Date) {
-                    r.setEnd(((java.util.Date) endObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
-                }
-                r.setLocation(e.getString("location"));
-                Object elatObj = e.get("latitude");
-                if (elatObj instanceof Number) r.setLatitude(((Number) elatObj).doubleValue());
-                Object elonObj = e.get("longitude");
-                if (elonObj instanceof Number) r.setLongitude(((Number) elonObj).doubleValue());
-                Object etsObj = e.get("timestamp");
-                if (etsObj instanceof java.util.Date) {
-                    r.setTimestamp(((java.util.Date) etsObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
-                }
-                eventResponses.add(r);
             }
         }
 
@@ -281,7 +325,65 @@ public class UserService {
         return profile;
     }
 
+    static DestinationResponse toFavoriteDestination(Document d) {
+        DestinationResponse r = new DestinationResponse();
+        Object idObj = d.get("_id");
+        if (idObj instanceof ObjectId) {
+            r.setId(((ObjectId) idObj).toHexString());
+        } else if (idObj != null) {
+            r.setId(idObj.toString());
+        }
+        r.setTitle(d.getString("title"));
+        r.setDescription(d.getString("description"));
+        r.setImageUrls((List<String>) d.get("imageUrls"));
+        r.setBestSeasonToVisit(d.getString("bestSeasonToVisit"));
+        r.setLocation(d.getString("location"));
+        Object latObj = d.get("latitude");
+        if (latObj instanceof Number) r.setLatitude(((Number) latObj).doubleValue());
+        Object lonObj = d.get("longitude");
+        if (lonObj instanceof Number) r.setLongitude(((Number) lonObj).doubleValue());
+        Object tsObj = d.get("timestamp");
+        if (tsObj instanceof java.util.Date) {
+            r.setTimestamp(((java.util.Date) tsObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
+        }
+        // createdBy is a DBRef; aggregation may include it as a Document or DBRef; skip for now
+        return r;
+    }
+
+    static EventResponse toFavoriteEvent(Document e) {
+        EventResponse r = new EventResponse();
+        Object eidObj = e.get("_id");
+        if (eidObj instanceof ObjectId) {
+            r.setId(((ObjectId) eidObj).toHexString());
+        } else if (eidObj != null) {
+            r.setId(eidObj.toString());
+        }
+        r.setTitle(e.getString("title"));
+        r.setDescription(e.getString("description"));
+        r.setImageUrls((List<String>) e.get("imageUrls"));
+        // start/end may be stored as Date; handle carefully
+        Object startObj = e.get("start");
+        if (startObj instanceof java.util.Date) {
+            r.setStart(((java.util.Date) startObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
+        }
+        Object endObj = e.get("end");
+        if (endObj instanceof java.util.Date) {
+            r.setEnd(((java.util.Date) endObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
+        }
+        r.setLocation(e.getString("location"));
+        Object elatObj = e.get("latitude");
+        if (elatObj instanceof Number) r.setLatitude(((Number) elatObj).doubleValue());
+        Object elonObj = e.get("longitude");
+        if (elonObj instanceof Number) r.setLongitude(((Number) elonObj).doubleValue());
+        Object etsObj = e.get("timestamp");
+        if (etsObj instanceof java.util.Date) {
+            r.setTimestamp(((java.util.Date) etsObj).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
+        }
+        return r;
+    }
+
     @Transactional
+    @Observed(name = "app.service")
     public void changePassword(String id, String currentPassword, String newPassword) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
@@ -293,9 +395,11 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        // sessions started with the old password end here
+        refreshTokenService.revokeAll(id);
     }
     
-    private UserResponse convertToUserResponse(User user) {
+    UserResponse convertToUserResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
         response.setUsername(user.getUsername());
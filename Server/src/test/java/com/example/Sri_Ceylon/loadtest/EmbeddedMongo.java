@@ -0,0 +1,46 @@
+package com.example.Sri_Ceylon.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * A throwaway mongod for the load-test harness, downloaded and cached under
+ * {@code ~/.embedmongo} on first use. Set {@code loadtest.mongoUri} to run against an
+ * existing server instead (its database is dropped and reseeded).
+ */
+final class EmbeddedMongo implements AutoCloseable {
+
+    private static final String DATABASE = "sriceylon_loadtest";
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> process;
+    private final String uri;
+
+    private EmbeddedMongo(TransitionWalker.ReachedState<RunningMongodProcess> process, String uri) {
+        this.process = process;
+        this.uri = uri;
+    }
+
+    static EmbeddedMongo start() {
+        String external = System.getProperty("loadtest.mongoUri");
+        if (external != null) {
+            return new EmbeddedMongo(null, external);
+        }
+        TransitionWalker.ReachedState<RunningMongodProcess> process = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = process.current().getServerAddress();
+        return new EmbeddedMongo(process, "mongodb://" + address.getHost() + ":" + address.getPort() + "/" + DATABASE);
+    }
+
+    String uri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (process != null) {
+            process.close();
+        }
+    }
+}
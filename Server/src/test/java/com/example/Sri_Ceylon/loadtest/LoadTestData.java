@@ -0,0 +1,182 @@
+package com.example.Sri_Ceylon.loadtest;
+
+import com.example.Sri_Ceylon.model.Destination;
+import com.example.Sri_Ceylon.model.DestinationReview;
+import com.example.Sri_Ceylon.model.Event;
+import com.example.Sri_Ceylon.model.EventReview;
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.Role;
+import com.example.Sri_Ceylon.model.User;
+import com.example.Sri_Ceylon.service.CatalogVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the load-test database through the application's own mapping, so documents look
+ * exactly like ones written by the API. Sizes are system properties:
+ * {@code loadtest.seed.users}, {@code .destinations}, {@code .events}, {@code .hotels}
+ * and {@code .reviewsPerItem}.
+ */
+@Slf4j
+final class LoadTestData {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final List<String> IMAGE_URLS = List.of("/api/uploads/seed-1.jpg", "/api/uploads/seed-2.jpg");
+    private static final List<String> AMENITIES = List.of("wifi", "pool", "parking", "restaurant", "spa", "ac");
+
+    final List<String> usernames = new ArrayList<>();
+    final List<String> destinationIds = new ArrayList<>();
+    final List<String> eventIds = new ArrayList<>();
+    final List<String> hotelIds = new ArrayList<>();
+
+    private LoadTestData() {
+    }
+
+    static LoadTestData seed(ConfigurableApplicationContext context) {
+        int userCount = Integer.getInteger("loadtest.seed.users", 200);
+        int destinationCount = Integer.getInteger("loadtest.seed.destinations", 500);
+        int eventCount = Integer.getInteger("loadtest.seed.events", 500);
+        int hotelCount = Integer.getInteger("loadtest.seed.hotels", 500);
+        int reviewsPerItem = Integer.getInteger("loadtest.seed.reviewsPerItem", 5);
+
+        MongoTemplate mongoTemplate = context.getBean("mongoTemplate", MongoTemplate.class);
+        CatalogVersionService catalogVersionService = context.getBean(CatalogVersionService.class);
+        // one hash for everybody: hashing is deliberately slow and would dominate seeding
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(42);
+        LoadTestData data = new LoadTestData();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            User user = new User("lt_user_" + i, "lt_user_" + i + "@example.com", passwordHash);
+            user.setFirstName("Load");
+            user.setLastName("Tester " + i);
+            if (i % 10 == 0) {
+                user.getRoles().add(Role.ROLE_HOTEL_OWNER);
+            }
+            users.add(user);
+        }
+        users = new ArrayList<>(mongoTemplate.insertAll(users));
+        users.forEach(user -> data.usernames.add(user.getUsername()));
+
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < destinationCount; i++) {
+            Destination destination = new Destination();
+            destination.setTitle("Destination " + i);
+            destination.setDescription(text(random, 60));
+            destination.setImageUrls(IMAGE_URLS);
+            destination.setBestSeasonToVisit("December to April");
+            destination.setLocation("District " + (i % 25));
+            destination.setLatitude(latitude(random));
+            destination.setLongitude(longitude(random));
+            destination.setTimestamp(LocalDateTime.now().minusDays(random.nextInt(365)));
+            destination.setCreatedBy(users.get(0));
+            destinations.add(destination);
+        }
+        destinations = new ArrayList<>(mongoTemplate.insertAll(destinations));
+        destinations.forEach(destination -> data.destinationIds.add(destination.getId()));
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(random.nextInt(180));
+            Event event = new Event();
+            event.setTitle("Event " + i);
+            event.setDescription(text(random, 40));
+            event.setImageUrls(IMAGE_URLS);
+            event.setStart(start);
+            event.setEnd(start.plusDays(1 + random.nextInt(5)));
+            event.setLocation("District " + (i % 25));
+            event.setLatitude(latitude(random));
+            event.setLongitude(longitude(random));
+            event.setTimestamp(LocalDateTime.now());
+            event.setCreatedBy(users.get(0));
+            events.add(event);
+        }
+        events = new ArrayList<>(mongoTemplate.insertAll(events));
+        events.forEach(event -> data.eventIds.add(event.getId()));
+
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < hotelCount; i++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Hotel " + i);
+            hotel.setDescription(text(random, 50));
+            hotel.setAddress(i + " Galle Road");
+            hotel.setPhones(List.of("+94 11 " + (2000000 + i)));
+            hotel.setEmail("hotel" + i + "@example.com");
+            hotel.setAmenities(AMENITIES.subList(0, 1 + random.nextInt(AMENITIES.size())));
+            hotel.setImageUrls(IMAGE_URLS);
+            hotel.setCoordinates(new GeoJsonPoint(longitude(random), latitude(random)));
+            hotel.setIsPaid(random.nextInt(10) < 8);
+            hotel.setCreatedBy(users.get((i * 10) % users.size()));
+            hotels.add(hotel);
+        }
+        hotels = new ArrayList<>(mongoTemplate.insertAll(hotels));
+        hotels.stream().filter(Hotel::getIsPaid).forEach(hotel -> data.hotelIds.add(hotel.getId()));
+
+        List<DestinationReview> destinationReviews = new ArrayList<>();
+        for (Destination destination : destinations) {
+            for (int r = 0; r < reviewsPerItem; r++) {
+                DestinationReview review = new DestinationReview();
+                review.setDestination(destination);
+                review.setUser(users.get(random.nextInt(users.size())));
+                review.setRate(1 + random.nextInt(5));
+                review.setReview(text(random, 30));
+                review.setTimestamp(LocalDateTime.now());
+                destinationReviews.add(review);
+            }
+        }
+        mongoTemplate.insertAll(destinationReviews);
+
+        List<EventReview> eventReviews = new ArrayList<>();
+        for (Event event : events) {
+            for (int r = 0; r < reviewsPerItem; r++) {
+                EventReview review = new EventReview();
+                review.setEvent(event);
+                review.setUser(users.get(random.nextInt(users.size())));
+                review.setRate(1 + random.nextInt(5));
+                review.setReview(text(random, 30));
+                review.setTimestamp(LocalDateTime.now());
+                eventReviews.add(review);
+            }
+        }
+        mongoTemplate.insertAll(eventReviews);
+
+        // writes behind the services' backs: move the counters so snapshots and ETags are rebuilt
+        for (String collection : List.of(CatalogVersionService.DESTINATIONS, CatalogVersionService.EVENTS,
+                CatalogVersionService.HOTELS, CatalogVersionService.DESTINATION_REVIEWS,
+                CatalogVersionService.EVENT_REVIEWS)) {
+            catalogVersionService.bump(collection);
+        }
+
+        log.info("seeded {} users, {} destinations, {} events, {} hotels, {} reviews",
+                users.size(), destinations.size(), events.size(), hotels.size(),
+                destinationReviews.size() + eventReviews.size());
+        return data;
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append("lorem".substring(0, 1 + random.nextInt(5)));
+        }
+        return text.toString();
+    }
+
+    // somewhere on the island
+    private static double latitude(Random random) {
+        return 6.0 + random.nextDouble() * 3.8;
+    }
+
+    private static double longitude(Random random) {
+        return 79.7 + random.nextDouble() * 2.1;
+    }
+}
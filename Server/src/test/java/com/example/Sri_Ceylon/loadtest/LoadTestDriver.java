@@ -0,0 +1,272 @@
+package com.example.Sri_Ceylon.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load driver used by the {@code loadtest} profile. Start the server in
+ * one execution mode, run the driver, then repeat with the other mode:
+ *
+ * <pre>
+ * java -jar target/Sri-Ceylon-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true
+ * mvn -Ploadtest test-compile exec:java -Dloadtest.label=virtual
+ * </pre>
+ *
+ * Settings are system properties: {@code loadtest.baseUrl}, {@code loadtest.paths}
+ * (separated by {@code ;}), {@code loadtest.concurrency}, {@code loadtest.warmupSeconds},
+ * {@code loadtest.durationSeconds} and {@code loadtest.label}. Each path is a scenario of
+ * anonymous GETs; {@link LoadTestHarness} drives its weighted, logged-in mix through the
+ * same loop.
+ */
+@Slf4j
+public class LoadTestDriver {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        String[] paths = System.getProperty("loadtest.paths",
+                "/api/destinations?fields=title,location;/api/events?fields=title,start,end;/api/hotels?fields=name,address").split(";");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 5);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+        String label = System.getProperty("loadtest.label", "run");
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String path : paths) {
+            scenarios.add(new Scenario(path, 1, (session, random) -> session.get(path)));
+        }
+        measure(newClient(), baseUrl, scenarios, worker -> null, concurrency, warmupSeconds, durationSeconds, label);
+    }
+
+    static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Warms up, then measures and logs every scenario. Worker {@code w} logs in as
+     * {@code usernames.apply(w)} first, or stays anonymous when that is null.
+     */
+    static void measure(HttpClient client, String baseUrl, List<Scenario> scenarios, IntFunction<String> usernames,
+                        int concurrency, int warmupSeconds, int durationSeconds, String label)
+            throws InterruptedException {
+        log.info("[{}] warming up {} clients for {}s...", label, concurrency, warmupSeconds);
+        run(client, baseUrl, scenarios, usernames, concurrency, warmupSeconds);
+        scenarios.forEach(Scenario::reset);
+
+        log.info("[{}] measuring {} clients for {}s against {}", label, concurrency, durationSeconds, baseUrl);
+        run(client, baseUrl, scenarios, usernames, concurrency, durationSeconds);
+
+        log.info(String.format("%-16s %9s %8s %9s %8s %8s %8s %8s %8s",
+                "scenario", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max"));
+        for (Scenario scenario : scenarios) {
+            scenario.report(durationSeconds);
+        }
+    }
+
+    private static void run(HttpClient client, String baseUrl, List<Scenario> scenarios, IntFunction<String> usernames,
+                            int concurrency, int seconds) throws InterruptedException {
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            Session session = new Session(client, baseUrl, usernames.apply(w));
+            Thread thread = new Thread(() -> {
+                try {
+                    if (session.username != null) {
+                        session.login();
+                    }
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Scenario scenario = choose(scenarios, random.nextInt(totalWeight));
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = scenario.action().execute(session, random) < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        scenario.record(System.nanoTime() - start, ok);
+                    }
+                } catch (Exception e) {
+                    log.warn("client {} could not log in: {}", session.username, e.toString());
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + w);
+            thread.start();
+        }
+        done.await();
+    }
+
+    private static Scenario choose(List<Scenario> scenarios, int roll) {
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    @FunctionalInterface
+    interface Action {
+        int execute(Session session, ThreadLocalRandom random) throws Exception;
+    }
+
+    /**
+     * One simulated user: a seeded account and the bearer token it last logged in with,
+     * or an anonymous client.
+     */
+    static final class Session {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final String username;
+        private String token;
+
+        Session(HttpClient client, String baseUrl, String username) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.username = username;
+        }
+
+        int login() throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"usernameOrEmail\":\"" + username
+                            + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}"))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (response.statusCode() >= 400 || !matcher.find()) {
+                throw new IllegalStateException("login failed with " + response.statusCode());
+            }
+            token = matcher.group(1);
+            return response.statusCode();
+        }
+
+        int get(String path) throws Exception {
+            return send(request(path).GET());
+        }
+
+        int post(String path, String json) throws Exception {
+            HttpRequest.Builder request = request(path);
+            if (json == null) {
+                return send(request.POST(HttpRequest.BodyPublishers.noBody()));
+            }
+            return send(request.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30));
+            return token == null ? request : request.header("Authorization", "Bearer " + token);
+        }
+
+        private int send(HttpRequest.Builder request) throws Exception {
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    /**
+     * A weighted slice of the traffic mix with its own latency histogram and error count.
+     */
+    static final class Scenario {
+
+        private final String name;
+        private final int weight;
+        private final Action action;
+        private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        Scenario(String name, int weight, Action action) {
+            this.name = name;
+            this.weight = weight;
+            this.action = action;
+        }
+
+        int weight() {
+            return weight;
+        }
+
+        Action action() {
+            return action;
+        }
+
+        void record(long nanos, boolean ok) {
+            if (ok) {
+                latencies.recordValue(Math.min(nanos, MAX_TRACKABLE_NANOS));
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            latencies.reset();
+            errors.set(0);
+        }
+
+        void report(int seconds) {
+            log.info(String.format("%-16s %9d %8d %9.1f %6.1fms %6.1fms %6.1fms %6.1fms %6.1fms",
+                    name, latencies.getTotalCount(), errors.get(), latencies.getTotalCount() / (double) seconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())));
+        }
+
+        // budgets are only enforced by LoadTestHarness, see there for the properties
+        void checkBudget(List<String> violations) {
+            double p99Budget = budget("p99Ms", 500);
+            double p999Budget = budget("p999Ms", 2000);
+            double errorRateBudget = budget("errorRate", 0.01);
+
+            double p99 = millis(latencies.getValueAtPercentile(99));
+            double p999 = millis(latencies.getValueAtPercentile(99.9));
+            long total = latencies.getTotalCount() + errors.get();
+            double errorRate = total == 0 ? 0 : errors.get() / (double) total;
+
+            if (p99 > p99Budget) {
+                violations.add(String.format("%s p99 %.1fms > %.0fms", name, p99, p99Budget));
+            }
+            if (p999 > p999Budget) {
+                violations.add(String.format("%s p99.9 %.1fms > %.0fms", name, p999, p999Budget));
+            }
+            if (errorRate > errorRateBudget) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%", name, errorRate * 100, errorRateBudget * 100));
+            }
+        }
+
+        private double budget(String key, double defaultValue) {
+            String value = System.getProperty("loadtest.budget." + name + "." + key,
+                    System.getProperty("loadtest.budget." + key));
+            return value == null ? defaultValue : Double.parseDouble(value);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Sri_Ceylon.loadtest;
+
+import com.example.Sri_Ceylon.SriCeylonApplication;
+import com.example.Sri_Ceylon.dto.IndexStatusResponse;
+import com.example.Sri_Ceylon.loadtest.LoadTestDriver.Scenario;
+import com.example.Sri_Ceylon.service.IndexCatalogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: starts a throwaway mongod ({@link EmbeddedMongo}), boots the
+ * application against it on a random port, waits for the declared indexes, seeds a
+ * realistic catalog ({@link LoadTestData}) and drives a weighted mix of browse, detail,
+ * geo, review, favorite, profile and login traffic from logged-in clients through the
+ * {@link LoadTestDriver} loop.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java@harness -Dloadtest.concurrency=100 -Dloadtest.durationSeconds=60
+ * </pre>
+ *
+ * Each scenario gets its own latency histogram; the run fails when a scenario's p99 or
+ * p99.9 exceeds {@code loadtest.budget.p99Ms} / {@code loadtest.budget.p999Ms} (overridable
+ * per scenario, e.g. {@code loadtest.budget.login.p99Ms}) or its error rate exceeds
+ * {@code loadtest.budget.errorRate}.
+ */
+@Slf4j
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+
+        ConfigurableApplicationContext context = null;
+        try (EmbeddedMongo mongo = EmbeddedMongo.start()) {
+            context = new SpringApplicationBuilder(SriCeylonApplication.class)
+                    .properties(applicationProperties(mongo.uri()))
+                    .run(args);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // start from an empty database every run, then let the catalog build its indexes
+            context.getBean("mongoTemplate", MongoTemplate.class).getDb().drop();
+            awaitIndexes(context.getBean(IndexCatalogService.class));
+
+            LoadTestData data = LoadTestData.seed(context);
+            List<Scenario> scenarios = scenarios(data);
+            LoadTestDriver.measure(LoadTestDriver.newClient(), "http://localhost:" + port, scenarios,
+                    worker -> data.usernames.get(worker % data.usernames.size()),
+                    concurrency, warmupSeconds, durationSeconds, "harness");
+
+            List<String> violations = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                scenario.checkBudget(violations);
+            }
+            if (!violations.isEmpty()) {
+                violations.forEach(violation -> log.error("BUDGET EXCEEDED: {}", violation));
+                throw new IllegalStateException(violations.size() + " latency budget(s) exceeded");
+            }
+            log.info("all scenarios within budget");
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(String mongoUri) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        properties.put("server.port", "0");
+        properties.put("jwt.secret", System.getProperty("jwt.secret", randomSecret()));
+        properties.put("jwt.expiration", System.getProperty("jwt.expiration", "3600000"));
+        properties.put("app.cors.allowed-origins", "http://localhost:5173");
+        properties.put("gemini.api.key", "loadtest");
+        properties.put("spring.devtools.restart.enabled", "false");
+        // a few hundred clients share one IP here; measure the application, not the limiter
+        properties.put("app.rate-limit.enabled", System.getProperty("loadtest.rateLimit", "false"));
+        return properties;
+    }
+
+    private static String randomSecret() {
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    private static void awaitIndexes(IndexCatalogService indexCatalogService) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (true) {
+            List<IndexStatusResponse> pending = indexCatalogService.verify().stream()
+                    .filter(index -> !"PRESENT".equals(index.getStatus()) && !"UNDECLARED".equals(index.getStatus()))
+                    .toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+            // no-op while the startup build is still running
+            indexCatalogService.buildMissingIndexes();
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("indexes not ready after 60s: " + pending);
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private static List<Scenario> scenarios(LoadTestData data) {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("browse", 30, (session, random) -> switch (random.nextInt(3)) {
+            case 0 -> session.get("/api/destinations");
+            case 1 -> session.get("/api/events");
+            default -> session.get("/api/hotels");
+        }));
+        scenarios.add(new Scenario("detail", 25, (session, random) -> switch (random.nextInt(3)) {
+            case 0 -> session.get("/api/destinations/" + pick(data.destinationIds, random));
+            case 1 -> session.get("/api/events/" + pick(data.eventIds, random));
+            default -> session.get("/api/hotels/" + pick(data.hotelIds, random));
+        }));
+        scenarios.add(new Scenario("hotelsNear", 10, (session, random) -> session.get(String.format(Locale.ROOT,
+                "/api/hotels/near?lat=%.4f&lng=%.4f&radiusKm=%d",
+                6.0 + random.nextDouble() * 3.8, 79.7 + random.nextDouble() * 2.1, 5 + random.nextInt(45)))));
+        scenarios.add(new Scenario("reviewList", 12, (session, random) ->
+                session.get("/api/destinations/reviews/destination/" + pick(data.destinationIds, random))));
+        scenarios.add(new Scenario("reviewCreate", 5, (session, random) -> session.post("/api/destinations/reviews",
+                "{\"destinationId\":\"" + pick(data.destinationIds, random) + "\",\"rate\":" + (1 + random.nextInt(5))
+                        + ",\"review\":\"load test review\"}")));
+        scenarios.add(new Scenario("favorite", 5, (session, random) ->
+                session.post("/api/users/me/favorites/destinations/" + pick(data.destinationIds, random), null)));
+        scenarios.add(new Scenario("profile", 10, (session, random) -> session.get("/api/users/me/profile")));
+        scenarios.add(new Scenario("login", 3, (session, random) -> session.login()));
+        return scenarios;
+    }
+
+    private static String pick(List<String> ids, ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
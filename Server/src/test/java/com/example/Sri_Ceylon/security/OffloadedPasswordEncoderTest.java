@@ -0,0 +1,126 @@
+package com.example.Sri_Ceylon.security;
+
+import com.example.Sri_Ceylon.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffloadedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void delegatesOffTheCallingThread() {
+        try (OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(new ThreadNameEncoder(), 1, 1, 1000, 5,
+                meterRegistry)) {
+            assertThat(encoder.encode("secret")).startsWith("password-hash-");
+            assertThat(encoder.matches("secret", "password-hash-1")).isTrue();
+        }
+    }
+
+    @Test
+    void shedsLoadWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(
+                new BlockingEncoder(started, release), 1, 1, 5000, 7, meterRegistry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            // the queued task only shows up in the executor queue once submitted
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("app.password.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThatThrownBy(() -> encoder.encode("c"))
+                    .isInstanceOf(PasswordHashingBusyException.class)
+                    .satisfies(e -> assertThat(((PasswordHashingBusyException) e).getRetryAfterSeconds()).isEqualTo(7));
+            assertThat(meterRegistry.get("app.password.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(
+                new BlockingEncoder(new CountDownLatch(1), release), 1, 1, 50, 5, meterRegistry)) {
+            assertThatThrownBy(() -> encoder.matches("a", "a")).isInstanceOf(PasswordHashingBusyException.class);
+            assertThat(meterRegistry.get("app.password.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rethrowsDelegateFailures() {
+        PasswordEncoder failing = new ThreadNameEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("bad password");
+            }
+        };
+        try (OffloadedPasswordEncoder encoder = new OffloadedPasswordEncoder(failing, 1, 1, 1000, 5, meterRegistry)) {
+            assertThatThrownBy(() -> encoder.encode("a"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("bad password");
+        }
+    }
+
+    // "hashes" to the name of the thread it ran on
+    private static class ThreadNameEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        private void block() {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Sri_Ceylon.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expected values are PayHere's formula applied by hand:
+ * {@code MD5(merchant_id + order_id + amount + currency [+ status_code] + MD5(secret))},
+ * upper-case hex throughout.
+ */
+class PaymentSignerTest {
+
+    private static final String MERCHANT_ID = "1211149";
+    private static final String SECRET = "MzAxNjE4NjQ3NjE0NTM2NjA3ODgyMjQ2OTk3OTE2NTE5NDA4NzQ2";
+
+    private final PaymentSigner signer = new PaymentSigner(MERCHANT_ID, SECRET);
+
+    @Test
+    void signsTheCheckoutHash() {
+        assertThat(signer.sign("ItemNo12345", "1000.00", "LKR")).isEqualTo("658395315E2AD367E9C37B26C9A23223");
+    }
+
+    @Test
+    void verifiesANotificationSignatureInEitherCase() {
+        String md5sig = "418B91D9D8141F0964471045F421E602";
+
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "2", md5sig)).isTrue();
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "2",
+                md5sig.toLowerCase(Locale.ROOT))).isTrue();
+    }
+
+    @Test
+    void rejectsASignatureForOtherFields() {
+        String md5sig = "418B91D9D8141F0964471045F421E602";
+
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "-2", md5sig)).isFalse();
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1.00", "LKR", "2", md5sig)).isFalse();
+        assertThat(signer.verify("1211150", "ItemNo12345", "1000.00", "LKR", "2", md5sig)).isFalse();
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "-2",
+                "DE7C7827C7F7A16F1AA72812F191C890")).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedSignatures() {
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "2", null)).isFalse();
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "2", "418B91D9")).isFalse();
+        assertThat(signer.verify(MERCHANT_ID, "ItemNo12345", "1000.00", "LKR", "2",
+                "Z18B91D9D8141F0964471045F421E602")).isFalse();
+    }
+
+    @Test
+    void signsTheSameFromAnyThread() throws InterruptedException {
+        String[] fromOtherThread = new String[1];
+        Thread thread = new Thread(() -> fromOtherThread[0] = signer.sign("ItemNo12345", "1000.00", "LKR"));
+        thread.start();
+        thread.join();
+
+        assertThat(fromOtherThread[0]).isEqualTo(signer.sign("ItemNo12345", "1000.00", "LKR"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    // long enough that the bucket does not refill noticeably during a test
+    private static final long INTERVAL = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void allowsTheBurstThenReportsTheWaitForTheNextToken() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("client", INTERVAL, 3)).isZero();
+        }
+        long wait = store.tryAcquire("client", INTERVAL, 3);
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(INTERVAL);
+        assertThat(wait).isGreaterThan(INTERVAL - TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void deniedRequestsDoNotSpendTokens() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000);
+        store.tryAcquire("client", INTERVAL, 1);
+
+        long first = store.tryAcquire("client", INTERVAL, 1);
+        long second = store.tryAcquire("client", INTERVAL, 1);
+
+        // a spent token would push the next free time a whole interval further out
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void refillsContinuously() throws InterruptedException {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000);
+        long interval = TimeUnit.MILLISECONDS.toNanos(20);
+        assertThat(store.tryAcquire("client", interval, 1)).isZero();
+        assertThat(store.tryAcquire("client", interval, 1)).isPositive();
+
+        TimeUnit.NANOSECONDS.sleep(interval * 2);
+
+        assertThat(store.tryAcquire("client", interval, 1)).isZero();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000);
+        assertThat(store.tryAcquire("a", INTERVAL, 1)).isZero();
+        assertThat(store.tryAcquire("a", INTERVAL, 1)).isPositive();
+
+        assertThat(store.tryAcquire("b", INTERVAL, 1)).isZero();
+    }
+
+    @Test
+    void newKeysPassUntrackedWhenTheStoreIsFull() {
+        // one key per stripe
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(16);
+        String first = "key-0";
+        String sameStripe = null;
+        for (int i = 1; sameStripe == null; i++) {
+            String candidate = "key-" + i;
+            if (stripe(candidate) == stripe(first)) {
+                sameStripe = candidate;
+            }
+        }
+        store.tryAcquire(first, INTERVAL, 1);
+        assertThat(store.tryAcquire(first, INTERVAL, 1)).isPositive();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.tryAcquire(sameStripe, INTERVAL, 1)).isZero();
+        }
+        // a tracked key is never evicted to make room
+        assertThat(store.tryAcquire(first, INTERVAL, 1)).isPositive();
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() throws InterruptedException {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(16);
+        long shortInterval = TimeUnit.MILLISECONDS.toNanos(10);
+        String idle = "key-0";
+        String busy = "busy";
+        store.tryAcquire(idle, shortInterval, 1);
+        store.tryAcquire(busy, INTERVAL, 1);
+        TimeUnit.NANOSECONDS.sleep(shortInterval * 2);
+
+        store.sweep();
+
+        assertThat(store.tryAcquire(busy, INTERVAL, 1)).isPositive();
+
+        // the stripe has room again, so another key of the same stripe is tracked
+        String other = null;
+        for (int i = 1; other == null; i++) {
+            if (stripe("key-" + i) == stripe(idle)) {
+                other = "key-" + i;
+            }
+        }
+        assertThat(store.tryAcquire(other, INTERVAL, 1)).isZero();
+        assertThat(store.tryAcquire(other, INTERVAL, 1)).isPositive();
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & 0x7fffffff) % 16;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.Sri_Ceylon.security.ratelimit;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The client side of the bucket update: what is sent and how the returned document is
+ * read. The pipeline itself runs on the server and is exercised by the load-test harness.
+ */
+@ExtendWith(MockitoExtension.class)
+class MongoRateLimitStoreTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private MongoRateLimitStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollection(MongoRateLimitStore.COLLECTION)).thenReturn(collection);
+        store = new MongoRateLimitStore(mongoTemplate);
+    }
+
+    @Test
+    void upsertsTheBucketOfTheKeyAndReturnsTheUpdatedDocument() {
+        when(collection.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(new Document("_id", "client").append("freeAt", 0L).append("allowed", true));
+
+        assertThat(store.tryAcquire("client", INTERVAL, 5)).isZero();
+
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        ArgumentCaptor<FindOneAndUpdateOptions> options = ArgumentCaptor.forClass(FindOneAndUpdateOptions.class);
+        verify(collection).findOneAndUpdate(filter.capture(), anyList(), options.capture());
+        assertThat(filter.getValue()).isEqualTo(new Document("_id", "client"));
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(options.getValue().getReturnDocument()).isEqualTo(ReturnDocument.AFTER);
+    }
+
+    @Test
+    void deniedRequestWaitsUntilTheBucketIsBackWithinTolerance() {
+        long freeAt = System.currentTimeMillis() + 5000;
+        when(collection.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(new Document("_id", "client").append("freeAt", freeAt).append("allowed", false));
+
+        long wait = store.tryAcquire("client", INTERVAL, 2);
+
+        // freeAt + interval - now - interval * burst
+        assertThat(TimeUnit.NANOSECONDS.toMillis(wait)).isBetween(3900L, 4000L);
+    }
+
+    @Test
+    void deniedRequestWaitsAtLeastAMillisecond() {
+        when(collection.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(new Document("_id", "client").append("freeAt", 0L).append("allowed", false));
+
+        assertThat(store.tryAcquire("client", INTERVAL, 2)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void missingResultIsAllowed() {
+        when(collection.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(null);
+
+        assertThat(store.tryAcquire("client", INTERVAL, 1)).isZero();
+    }
+
+    @Test
+    void subMillisecondIntervalsAreRoundedUpToOneMillisecond() {
+        when(collection.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(null);
+
+        store.tryAcquire("client", TimeUnit.MICROSECONDS.toNanos(100), 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(collection).findOneAndUpdate(any(Bson.class), pipeline.capture(), any(FindOneAndUpdateOptions.class));
+        Document takeToken = pipeline.getValue().get(0).get("$set", Document.class).get("freeAt", Document.class);
+        assertThat(takeToken.getList("$add", Object.class).get(1)).isEqualTo(1L);
+    }
+}
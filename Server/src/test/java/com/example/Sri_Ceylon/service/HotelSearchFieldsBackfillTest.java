@@ -0,0 +1,38 @@
+package com.example.Sri_Ceylon.service;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotelSearchFieldsBackfillTest {
+
+    private static final ObjectId USER_ID = new ObjectId("65f0c0ffee0000000000beef");
+
+    @Test
+    void readsTheIdOfADbRef() {
+        assertThat(HotelSearchFieldsBackfill.ownerId(new DBRef("users", USER_ID))).isEqualTo(USER_ID.toHexString());
+    }
+
+    @Test
+    void readsTheIdOfADbRefDecodedAsADocument() {
+        Document ref = new Document("$ref", "users").append("$id", USER_ID);
+
+        assertThat(HotelSearchFieldsBackfill.ownerId(ref)).isEqualTo(USER_ID.toHexString());
+    }
+
+    @Test
+    void keepsStringIds() {
+        assertThat(HotelSearchFieldsBackfill.ownerId(new DBRef("users", "user-1"))).isEqualTo("user-1");
+        assertThat(HotelSearchFieldsBackfill.ownerId(new Document("$id", "user-1"))).isEqualTo("user-1");
+    }
+
+    @Test
+    void hasNoOwnerWithoutAReference() {
+        assertThat(HotelSearchFieldsBackfill.ownerId(null)).isNull();
+        assertThat(HotelSearchFieldsBackfill.ownerId(new Document("$ref", "users"))).isNull();
+        assertThat(HotelSearchFieldsBackfill.ownerId("user-1")).isNull();
+    }
+}
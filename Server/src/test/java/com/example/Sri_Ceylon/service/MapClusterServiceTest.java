@@ -0,0 +1,185 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.dto.MapCluster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MapClusterServiceTest {
+
+    private static final String EVENTS = CatalogVersionService.EVENTS;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private MongoTemplate catalogReadTemplate;
+
+    @Mock
+    private MongoOperations source;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private MapClusterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MapClusterService(catalogVersionService, catalogReadTemplate, Runnable::run,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxCells", 20000L);
+        when(catalogVersionService.currentVersion(anyString())).thenReturn(1L);
+        when(catalogVersionService.readAtCurrentVersion(anyString(), eq(catalogReadTemplate), any()))
+                .thenAnswer(invocation -> {
+                    loads.incrementAndGet();
+                    CatalogVersionService.VersionedRead<?> read = invocation.getArgument(2);
+                    return read.read(1L, source);
+                });
+    }
+
+    @Test
+    void quadkeyStartsWithTheQuadrantOfThePoint() {
+        int topLevel = 2 * (MapClusterService.MAX_LEVEL - 1);
+
+        // y bit above x bit: north-west, north-east, south-west, south-east
+        assertThat(MapClusterService.quadkey(45, -90) >>> topLevel).isEqualTo(0);
+        assertThat(MapClusterService.quadkey(45, 90) >>> topLevel).isEqualTo(1);
+        assertThat(MapClusterService.quadkey(-45, -90) >>> topLevel).isEqualTo(2);
+        assertThat(MapClusterService.quadkey(-45, 90) >>> topLevel).isEqualTo(3);
+    }
+
+    @Test
+    void nearbyPointsShareALongerPrefixThanDistantOnes() {
+        long colombo = MapClusterService.quadkey(6.9271, 79.8612);
+        long nearColombo = MapClusterService.quadkey(6.9300, 79.8650);
+        long kandy = MapClusterService.quadkey(7.2906, 80.6337);
+
+        assertThat(Long.numberOfLeadingZeros(colombo ^ nearColombo))
+                .isGreaterThan(Long.numberOfLeadingZeros(colombo ^ kandy));
+    }
+
+    @Test
+    void quadkeyClampsToTheEdgesOfTheMap() {
+        long allBits = (1L << (2 * MapClusterService.MAX_LEVEL)) - 1;
+        // y bits sit in the odd positions
+        long yBits = allBits & 0xAAAAAAAAAAAAAAAAL;
+
+        assertThat(MapClusterService.quadkey(90, 180)).isEqualTo(allBits & ~yBits);
+        assertThat(MapClusterService.quadkey(-90, 180)).isEqualTo(allBits);
+        assertThat(MapClusterService.quadkey(-90, -180)).isEqualTo(yBits);
+        assertThat(MapClusterService.quadkey(90, -180)).isZero();
+    }
+
+    @Test
+    void boxCrossingTheAntimeridianCoversBothEdges() {
+        events(event("east", 0, 179.5), event("west", 0, -179.5), event("greenwich", 0, 0));
+
+        List<MapCluster> clusters = service.clusters(List.of(EVENTS), 5, -1, 179, 1, -179)
+                .response().getClusters();
+
+        assertThat(clusters).extracting(MapCluster::getId).containsExactlyInAnyOrder("east", "west");
+    }
+
+    @Test
+    void regularBoxIsNotTreatedAsWrapping() {
+        events(event("east", 0, 179.5), event("west", 0, -179.5), event("greenwich", 0, 0));
+
+        List<MapCluster> clusters = service.clusters(List.of(EVENTS), 5, -1, -1, 1, 1)
+                .response().getClusters();
+
+        assertThat(clusters).extracting(MapCluster::getId).containsExactly("greenwich");
+    }
+
+    @Test
+    void wrappingBoxIsSizedByItsNarrowSide() {
+        events();
+
+        // two degrees across the antimeridian is a small box
+        assertThat(service.clusters(List.of(EVENTS), 10, -1, 179, 1, -179).response().getClusters()).isEmpty();
+        // the same corners the other way round span nearly the whole world
+        assertThatThrownBy(() -> service.clusters(List.of(EVENTS), 10, -1, -179, 1, 179))
+                .hasMessageContaining("too large");
+    }
+
+    @Test
+    void pointsInOneCellAreMergedIntoTheirCentroid() {
+        events(event("a", 7.0, 80.0), event("b", 7.2, 80.2), event("far", -30, 20));
+
+        List<MapCluster> clusters = service.clusters(List.of(EVENTS), 3, -60, -30, 60, 120)
+                .response().getClusters();
+
+        assertThat(clusters).hasSize(2);
+        MapCluster merged = clusters.stream().filter(c -> c.getCount() == 2).findFirst().orElseThrow();
+        assertThat(merged.getId()).isNull();
+        assertThat(merged.getLatitude()).isCloseTo(7.1, offset(1e-9));
+        assertThat(merged.getLongitude()).isCloseTo(80.1, offset(1e-9));
+    }
+
+    @Test
+    void concurrentFirstRequestsShareOneBuild() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(source.stream(any(Query.class), eq(Document.class), eq(EVENTS))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Stream.of(event("a", 0, 0));
+        });
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(
+                () -> service.clusters(List.of(EVENTS), 1, -10, -10, 10, 10).response().getClusters().size());
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(
+                () -> service.clusters(List.of(EVENTS), 1, -10, -10, 10, 10).response().getClusters().size());
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void failedFirstBuildIsRetriedByTheNextRequest() {
+        when(source.stream(any(Query.class), eq(Document.class), eq(EVENTS)))
+                .thenThrow(new RuntimeException("primary unavailable"))
+                .thenAnswer(invocation -> Stream.of(event("a", 0, 0)));
+
+        assertThatThrownBy(() -> service.clusters(List.of(EVENTS), 1, -10, -10, 10, 10))
+                .hasMessage("primary unavailable");
+        assertThat(service.clusters(List.of(EVENTS), 1, -10, -10, 10, 10).response().getClusters()).hasSize(1);
+    }
+
+    private void events(Document... events) {
+        when(source.stream(any(Query.class), eq(Document.class), eq(EVENTS)))
+                .thenAnswer(invocation -> Stream.of(events));
+    }
+
+    private static Document event(String id, double lat, double lng) {
+        return new Document("_id", id).append("title", id).append("latitude", lat).append("longitude", lng);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.PaymentNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentNotificationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private HotelService hotelService;
+
+    @Mock
+    private PaymentOrderService paymentOrderService;
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentNotificationService(mongoTemplate, hotelService, paymentOrderService, scheduled::add,
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBaseMs", 5000L);
+        ReflectionTestUtils.setField(service, "retryMaxMs", 3600000L);
+        ReflectionTestUtils.setField(service, "leaseMs", 60000L);
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+    }
+
+    @Test
+    void completedNotificationIsQueuedOnlyWhileTheOrderIsNotCompleted() {
+        assertThat(service.record("order-1", "pay-1", "hotel-1", "5000.00", "LKR", "2")).isTrue();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(PaymentNotification.class));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", "order-1")
+                .containsEntry("statusCode", new Document("$ne", "2"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("state", PaymentNotification.State.PENDING).containsEntry("hotelId", "hotel-1");
+        assertThat(update.getValue().getUpdateObject().get("$setOnInsert", Document.class))
+                .containsEntry("attempts", 0);
+        // the worker is kicked right away
+        assertThat(scheduled).hasSize(1);
+    }
+
+    @Test
+    void repeatedDeliveryOfACompletedOrderIsADuplicate() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(PaymentNotification.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThat(service.record("order-1", "pay-1", "hotel-1", "5000.00", "LKR", "2")).isFalse();
+
+        assertThat(scheduled).isEmpty();
+        assertThat(meterRegistry.get("app.payments.notifications").tag("outcome", "duplicate").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void otherStatusesAreRecordedButNotProcessed() {
+        assertThat(service.record("order-1", null, "hotel-1", "5000.00", "LKR", "0")).isTrue();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(PaymentNotification.class));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("state", PaymentNotification.State.IGNORED);
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void processedNotificationActivatesTheHotelAndTheOrder() {
+        claims(notification(1));
+        when(hotelService.markHotelPaid("hotel-1")).thenReturn(true);
+
+        service.processDue();
+
+        Update finish = finished();
+        assertThat(finish.getUpdateObject().get("$set", Document.class))
+                .containsEntry("state", PaymentNotification.State.PROCESSED);
+        verify(paymentOrderService).markActivated("order-1");
+        assertThat(outcome("processed")).isEqualTo(1);
+    }
+
+    @Test
+    void unknownHotelFailsWithoutRetrying() {
+        claims(notification(1));
+        when(hotelService.markHotelPaid("hotel-1")).thenReturn(false);
+
+        service.processDue();
+
+        assertThat(finished().getUpdateObject().get("$set", Document.class))
+                .containsEntry("state", PaymentNotification.State.FAILED);
+        verify(paymentOrderService, never()).markActivated(any());
+        assertThat(outcome("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void failedActivationIsRetriedUntilTheLastAttempt() {
+        claims(notification(1));
+        when(hotelService.markHotelPaid("hotel-1")).thenThrow(new RuntimeException("timeout"));
+
+        service.processDue();
+
+        Document set = finished().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("state", PaymentNotification.State.PENDING).containsEntry("lastError", "timeout");
+        assertThat(outcome("retried")).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        claims(notification(3));
+        when(hotelService.markHotelPaid("hotel-1")).thenThrow(new RuntimeException("timeout"));
+
+        service.processDue();
+
+        assertThat(finished().getUpdateObject().get("$set", Document.class))
+                .containsEntry("state", PaymentNotification.State.FAILED);
+        assertThat(outcome("failed")).isEqualTo(1);
+    }
+
+    private void claims(PaymentNotification notification) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PaymentNotification.class)))
+                .thenReturn(notification, (PaymentNotification) null);
+    }
+
+    // the worker only writes its outcome while it still holds the claim
+    private Update finished() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(PaymentNotification.class));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", "order-1")
+                .containsEntry("state", PaymentNotification.State.PROCESSING);
+        return update.getValue();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("app.payments.notifications").tag("outcome", outcome).counter().count();
+    }
+
+    private static PaymentNotification notification(int attempts) {
+        PaymentNotification notification = new PaymentNotification();
+        notification.setOrderId("order-1");
+        notification.setHotelId("hotel-1");
+        notification.setStatusCode("2");
+        notification.setState(PaymentNotification.State.PROCESSING);
+        notification.setAttempts(attempts);
+        return notification;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.model.PaymentStatus;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOrderServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private PaymentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentOrderService(mongoTemplate);
+        ReflectionTestUtils.setField(service, "reconcileAfterMs", 900000L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // a success arriving after we gave up on the order still counts
+            "2,  PAID,        PENDING CANCELLED FAILED EXPIRED",
+            "-1, CANCELLED,   PENDING",
+            "-2, FAILED,      PENDING",
+            "-3, CHARGEDBACK, PAID",
+    })
+    void statusCodesMoveTheOrderOnlyFromTheirSourceStates(String statusCode, PaymentStatus to, String from) {
+        modifies(1);
+
+        assertThat(service.applyNotification("order-1", statusCode, "pay-1")).isTrue();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(PaymentOrder.class));
+        List<PaymentStatus> expectedFrom = Arrays.stream(from.split(" ")).map(PaymentStatus::valueOf).toList();
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", "order-1")
+                .containsEntry("status", new Document("$in", expectedFrom));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set)
+                .containsEntry("status", to)
+                .containsEntry("statusCode", statusCode)
+                .containsEntry("paymentId", "pay-1");
+    }
+
+    @Test
+    void paidOrderIsScheduledForTheActivationCheck() {
+        modifies(1);
+
+        service.applyNotification("order-1", "2", "pay-1");
+
+        Document updateObject = capturedUpdate().getUpdateObject();
+        assertThat(updateObject.get("$set", Document.class)).containsKeys("paidAt", "nextCheckAt");
+    }
+
+    @Test
+    void finalStatesNeedNoFurtherChecks() {
+        modifies(1);
+
+        service.applyNotification("order-1", "-1", null);
+
+        Document updateObject = capturedUpdate().getUpdateObject();
+        assertThat(updateObject.get("$unset", Document.class)).containsKey("nextCheckAt");
+        assertThat(updateObject.get("$set", Document.class)).doesNotContainKey("paymentId");
+    }
+
+    @Test
+    void pendingStatusOnlyRecordsTheCode() {
+        modifies(1);
+
+        service.applyNotification("order-1", "0", null);
+
+        assertThat(capturedUpdate().getUpdateObject().get("$set", Document.class)).doesNotContainKey("status");
+    }
+
+    @Test
+    void lateOrRepeatedNotificationDoesNotMoveTheOrder() {
+        modifies(0);
+
+        assertThat(service.applyNotification("order-1", "-2", "pay-1")).isFalse();
+    }
+
+    @Test
+    void unknownStatusCodeIsRejectedWithoutAWrite() {
+        assertThat(service.applyNotification("order-1", "7", "pay-1")).isFalse();
+        assertThat(service.applyNotification("order-1", null, "pay-1")).isFalse();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private void modifies(long count) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(PaymentOrder.class)))
+                .thenReturn(UpdateResult.acknowledged(count, count, null));
+    }
+
+    private Update capturedUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(PaymentOrder.class));
+        return update.getValue();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.model.Hotel;
+import com.example.Sri_Ceylon.model.PaymentNotification;
+import com.example.Sri_Ceylon.model.PaymentOrder;
+import com.example.Sri_Ceylon.model.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PaymentOrderService paymentOrderService;
+
+    @Mock
+    private PaymentNotificationService paymentNotificationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentReconciliationService(mongoTemplate, paymentOrderService, paymentNotificationService,
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "maxBatches", 10);
+        ReflectionTestUtils.setField(service, "recheckMs", 900000L);
+        ReflectionTestUtils.setField(service, "orderExpiryMs", 86400000L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"PROCESSED", "IGNORED"})
+    void paidOrderWithAFinishedNotificationButNoActiveHotelIsATerminalAnomaly(PaymentNotification.State state) {
+        reconciles(notification(state));
+
+        service.reconcile();
+
+        verify(paymentOrderService).clearCheck("order-1");
+        verify(paymentOrderService, never()).recheckLater(eq("order-1"), any(Duration.class));
+        assertThat(outcome("activation_anomaly")).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"PENDING, activating", "PROCESSING, activating", "FAILED, activation_failed"})
+    void paidOrderWhoseActivationMayStillHappenIsCheckedAgain(PaymentNotification.State state, String outcome) {
+        reconciles(notification(state));
+
+        service.reconcile();
+
+        verify(paymentOrderService).recheckLater(eq("order-1"), any(Duration.class));
+        verify(paymentOrderService, never()).clearCheck("order-1");
+        assertThat(outcome(outcome)).isEqualTo(1);
+    }
+
+    private void reconciles(PaymentNotification notification) {
+        PaymentOrder order = new PaymentOrder();
+        order.setOrderId("order-1");
+        order.setHotelId("hotel-1");
+        order.setStatus(PaymentStatus.PAID);
+        order.setCreatedAt(LocalDateTime.now().minusHours(1));
+        when(mongoTemplate.find(any(Query.class), eq(PaymentOrder.class))).thenReturn(List.of(order));
+        when(mongoTemplate.find(any(Query.class), eq(PaymentNotification.class))).thenReturn(List.of(notification));
+        // the hotel never became active
+        when(mongoTemplate.find(any(Query.class), eq(Hotel.class))).thenReturn(List.of());
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("app.payments.reconcile").tag("outcome", outcome).counter().count();
+    }
+
+    private static PaymentNotification notification(PaymentNotification.State state) {
+        PaymentNotification notification = new PaymentNotification();
+        notification.setOrderId("order-1");
+        notification.setHotelId("hotel-1");
+        notification.setStatusCode("2");
+        notification.setState(state);
+        return notification;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Sri_Ceylon.service;
+
+import com.example.Sri_Ceylon.exception.InvalidRefreshTokenException;
+import com.example.Sri_Ceylon.model.RefreshToken;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final Duration EXPIRATION = Duration.ofDays(14);
+    private static final Duration MAX_SESSION = Duration.ofDays(90);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(mongoTemplate);
+        ReflectionTestUtils.setField(service, "refreshExpirationMs", EXPIRATION.toMillis());
+        ReflectionTestUtils.setField(service, "maxSessionMs", MAX_SESSION.toMillis());
+    }
+
+    @Test
+    void issueStoresOnlyTheHashOfANewFamily() {
+        String raw = service.issue("user-1");
+
+        RefreshToken stored = inserted();
+        assertThat(stored.getTokenHash()).isEqualTo(sha256(raw)).isNotEqualTo(raw);
+        assertThat(stored.getUserId()).isEqualTo("user-1");
+        assertThat(stored.getFamilyId()).isNotBlank();
+        assertThat(stored.getUsedAt()).isNull();
+        assertThat(Duration.between(stored.getSessionStartedAt(), stored.getExpiresAt())).isEqualTo(EXPIRATION);
+    }
+
+    @Test
+    void rotateMarksTheTokenUsedAndIssuesASuccessorInTheSameFamily() {
+        LocalDateTime sessionStart = LocalDateTime.now().minusDays(3);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(token("family-1", sessionStart, null));
+
+        RefreshTokenService.Rotation rotation = service.rotate("old-token");
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> markUsed = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(claim.capture(), markUsed.capture(), eq(RefreshToken.class));
+        assertThat(claim.getValue().getQueryObject().get("tokenHash")).isEqualTo(sha256("old-token"));
+        assertThat(claim.getValue().getQueryObject()).containsEntry("usedAt", null);
+        assertThat(markUsed.getValue().getUpdateObject().get("$set", Document.class)).containsKey("usedAt");
+
+        RefreshToken successor = inserted();
+        assertThat(rotation.userId()).isEqualTo("user-1");
+        assertThat(rotation.refreshToken()).isNotEqualTo("old-token");
+        assertThat(successor.getTokenHash()).isEqualTo(sha256(rotation.refreshToken()));
+        assertThat(successor.getFamilyId()).isEqualTo("family-1");
+        assertThat(successor.getSessionStartedAt()).isEqualTo(sessionStart);
+    }
+
+    @Test
+    void successorNeverOutlivesTheSession() {
+        LocalDateTime sessionStart = LocalDateTime.now().minus(MAX_SESSION).plusDays(1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(token("family-1", sessionStart, null));
+
+        service.rotate("old-token");
+
+        assertThat(inserted().getExpiresAt()).isEqualTo(sessionStart.plus(MAX_SESSION));
+    }
+
+    @Test
+    void rotateRefusesATokenPastTheMaximumSession() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(token("family-1", LocalDateTime.now().minus(MAX_SESSION).minusMinutes(1), null));
+
+        assertThatThrownBy(() -> service.rotate("old-token")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(mongoTemplate, never()).insert(any(RefreshToken.class));
+    }
+
+    @Test
+    void reusingAnExchangedTokenRevokesItsFamily() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(RefreshToken.class)))
+                .thenReturn(token("family-1", LocalDateTime.now().minusDays(1), LocalDateTime.now().minusHours(1)));
+
+        assertThatThrownBy(() -> service.rotate("stolen-token")).isInstanceOf(InvalidRefreshTokenException.class);
+
+        ArgumentCaptor<Query> revoked = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(revoked.capture(), eq(RefreshToken.class));
+        assertThat(revoked.getValue().getQueryObject()).containsEntry("familyId", "family-1");
+        verify(mongoTemplate, never()).insert(any(RefreshToken.class));
+    }
+
+    @Test
+    void unknownOrExpiredTokenRevokesNothing() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(RefreshToken.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> service.rotate("unknown")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(RefreshToken.class));
+    }
+
+    private RefreshToken inserted() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(mongoTemplate).insert(captor.capture());
+        return captor.getValue();
+    }
+
+    private static RefreshToken token(String familyId, LocalDateTime sessionStartedAt, LocalDateTime usedAt) {
+        return new RefreshToken("id", "hash", "user-1", familyId, sessionStartedAt,
+                LocalDateTime.now().plus(EXPIRATION), usedAt);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import {
   ArrowLeft
 } from 'lucide-react';
 import { toast } from 'sonner';
+import { getAuthToken } from '@/services/api';
 
 // PayHere configuration
 // Get your Merchant ID from PayHere Dashboard: https://sandbox.payhere.lk (for testing)
@@ -123,20 +124,21 @@ const PaymentPage = () => {
     }
   }, [paymentState, navigate]);
 
-  // Generate hash - calls backend API for security
-  const generateHash = async (orderId: string, amount: string): Promise<string> => {
+  // Generate hash - calls backend API for security; the backend also sets the amount
+  const generateHash = async (orderId: string, hotelId: string): Promise<{ hash: string; amount: string; currency: string }> => {
     try {
-      console.log('Generating hash for order:', orderId, 'amount:', amount);
+      console.log('Generating hash for order:', orderId);
       
+      const token = getAuthToken();
       const response = await fetch('http://localhost:8081/api/payments/generate-hash', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
+          ...(token ? { Authorization: `Bearer ${token}` } : {}),
         },
         body: JSON.stringify({ 
           orderId, 
-          amount,
-          currency: 'LKR'
+          hotelId
         }),
       });
 
@@ -150,7 +152,7 @@ const PaymentPage = () => {
 
       const data = await response.json();
       console.log('Hash generated successfully:', data.hash);
-      return data.hash;
+      return { hash: data.hash, amount: data.amount, currency: data.currency };
     } catch (error) {
       console.error('Hash generation error:', error);
       const errorMsg = error instanceof Error ? error.message : 'Unknown error';
@@ -166,10 +168,9 @@ const PaymentPage = () => {
     
     try {
       const orderId = `HOTEL_${paymentState.hotelId}_${Date.now()}`;
-      const amount = paymentState.amount.toFixed(2);
       
-      // Generate hash from server (in production)
-      const hash = await generateHash(orderId, amount);
+      // Generate hash from server; pay exactly the amount it was signed for
+      const { hash, amount, currency } = await generateHash(orderId, paymentState.hotelId);
       
       const payment: PayHerePayment = {
         sandbox: PAYHERE_SANDBOX,
@@ -180,7 +181,7 @@ const PaymentPage = () => {
         order_id: orderId,
         items: `Hotel Registration - ${paymentState.hotelName}`,
         amount: amount,
-        currency: 'LKR',
+        currency: currency,
         hash: hash,
         first_name: paymentState.userName?.split(' ')[0] || 'Guest',
         last_name: paymentState.userName?.split(' ').slice(1).join(' ') || 'User',
@@ -257,6 +257,28 @@ export const hotelsAPI = {
   getNearby: (lat: number, lng: number, radiusKm = 10) =>
     apiRequest(`/hotels/near?lat=${lat}&lng=${lng}&radiusKm=${radiusKm}`),
 
+  search: (params: {
+    amenities?: string[];
+    match?: 'all' | 'any';
+    lat?: number;
+    lng?: number;
+    radiusKm?: number;
+    page?: number;
+    size?: number;
+  }) => {
+    const query = new URLSearchParams();
+    params.amenities?.forEach((a) => query.append('amenities', a));
+    if (params.match) query.set('match', params.match);
+    if (params.lat !== undefined && params.lng !== undefined) {
+      query.set('lat', String(params.lat));
+      query.set('lng', String(params.lng));
+      if (params.radiusKm !== undefined) query.set('radiusKm', String(params.radiusKm));
+    }
+    if (params.page !== undefined) query.set('page', String(params.page));
+    if (params.size !== undefined) query.set('size', String(params.size));
+    return apiRequest(`/hotels/search?${query.toString()}`);
+  },
+
   getByOwner: async (ownerId: string) => {
     const data = await apiRequest(`/hotels/owner/${ownerId}`, { headers: getAuthHeaders() });
     if (Array.isArray(data)) return data.map((h) => normalizeImageUrls(h));
@@ -457,3 +479,23 @@ export const chatAPI = {
     return res.text()
   },
 }
+
+// Map API
+export const mapAPI = {
+  // clustered markers for the visible bounds; pass map.getBounds() and map.getZoom()
+  getClusters: (
+    bounds: { minLat: number; minLng: number; maxLat: number; maxLng: number },
+    zoom: number,
+    layers?: Array<'hotels' | 'destinations' | 'events'>
+  ) => {
+    const query = new URLSearchParams({
+      minLat: String(bounds.minLat),
+      minLng: String(bounds.minLng),
+      maxLat: String(bounds.maxLat),
+      maxLng: String(bounds.maxLng),
+      zoom: String(Math.round(zoom)),
+    });
+    layers?.forEach((layer) => query.append('layers', layer));
+    return apiRequest(`/map/clusters?${query.toString()}`);
+  },
+}